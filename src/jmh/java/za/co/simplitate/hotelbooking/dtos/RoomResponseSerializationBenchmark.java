@@ -0,0 +1,54 @@
+package za.co.simplitate.hotelbooking.dtos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a room listing of {@value #ROOMS} rooms: the catch-all {@link Response} built the way
+ * the controllers used to build it, against the typed {@link RoomListResponse}, both through Jackson's bean
+ * serializer. Run with {@code -prof gc} to compare allocation per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RoomResponseSerializationBenchmark {
+
+    private static final int ROOMS = 50;
+
+    private ObjectMapper objectMapper;
+    private List<RoomTO> rooms;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        RoomType[] types = RoomType.values();
+        rooms = new ArrayList<>(ROOMS);
+        for (long id = 1; id <= ROOMS; id++) {
+            rooms.add(new RoomTO(id, 100 + (int) id, types[(int) id % types.length], new BigDecimal("1250.00"),
+                    2, "Sea view room with a balcony and a king bed", "/api/images/" + id + ".png",
+                    "/api/images/" + id + "-t.jpg", "/api/images/" + id + "-m.jpg", "/api/images/" + id + "-f.jpg",
+                    new BigDecimal("3750.00")));
+        }
+    }
+
+    @Benchmark
+    public byte[] response() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Response.builder()
+                .status(200)
+                .message("success")
+                .rooms(rooms)
+                .build());
+    }
+
+    @Benchmark
+    public byte[] roomListResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new RoomListResponse(200, "success", rooms));
+    }
+}
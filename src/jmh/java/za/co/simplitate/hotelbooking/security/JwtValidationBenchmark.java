@@ -0,0 +1,69 @@
+package za.co.simplitate.hotelbooking.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation throughput on all cores: the previous AuthFilter path (a new parser per call, three
+ * signature verifications) against a single {@link JWTUtils#parseToken} call on the shared parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JWTUtils jwtUtils;
+    private SecretKey secretKey;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtils = new JWTUtils();
+        Field secret = JWTUtils.class.getDeclaredField("secretJwtString");
+        secret.setAccessible(true);
+        secret.set(jwtUtils, SECRET);
+        jwtUtils.init();
+
+        secretKey = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        User user = User.builder().id(1L).email("john@email.com").role(UserRole.CUSTOMER).isActive(true).build();
+        userDetails = AuthUser.builder().user(user).build();
+        token = jwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean previousTripleParse() {
+        String username = parseWithNewParser().getSubject();
+        return username.equals(userDetails.getUsername())
+                && parseWithNewParser().getSubject().equals(userDetails.getUsername())
+                && !parseWithNewParser().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        TokenClaims claims = jwtUtils.parseToken(token);
+        return claims.subject().equals(userDetails.getUsername()) && !claims.isExpired();
+    }
+
+    private Claims parseWithNewParser() {
+        return Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,35 @@
+package za.co.simplitate.hotelbooking.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password checks per second on one core at each BCrypt cost, i.e. the logins per second per core an auth
+ * node can sustain (the pool in {@code passwordHashExecutor} runs one check per core). Size auth nodes as
+ * expected peak logins per second divided by this figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class PasswordHashBenchmark {
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = SecurityFilter.delegatingPasswordEncoder(strength);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+}
@@ -0,0 +1,73 @@
+package za.co.simplitate.hotelbooking.services;
+
+import org.openjdk.jmh.annotations.*;
+import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over 100k synthetic rooms: the previous {@code LIKE '%term%'} behaviour, modelled as an
+ * in-memory substring scan (so it leaves out the database round trip and table I/O the real query paid),
+ * against a ranked prefix query on {@link RoomSearchIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoomSearchBenchmark {
+
+    private static final int ROOMS = 100_000;
+    private static final int LIMIT = 50;
+    private static final String[] WORDS = {
+            "sea", "ocean", "garden", "city", "mountain", "view", "balcony", "terrace", "king", "queen", "twin",
+            "bed", "bath", "shower", "spa", "jacuzzi", "quiet", "sunny", "spacious", "cosy", "modern", "classic",
+            "family", "executive", "deluxe", "penthouse", "breakfast", "kitchenette", "lounge", "desk", "wifi",
+            "pool", "courtyard", "harbour", "skyline", "fireplace", "loft", "studio", "accessible", "pet"};
+
+    @Param({"sea", "ocean view balc", "harbour skyline firepl"})
+    private String query;
+
+    private List<RoomTO> rooms;
+    private RoomSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        RoomType[] types = RoomType.values();
+        rooms = new ArrayList<>(ROOMS);
+        for (long id = 1; id <= ROOMS; id++) {
+            StringBuilder description = new StringBuilder();
+            for (int w = 0, words = 6 + random.nextInt(10); w < words; w++) {
+                description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            rooms.add(new RoomTO(id, (int) id, types[random.nextInt(types.length)], BigDecimal.TEN,
+                    1 + random.nextInt(4), description.toString().trim(), null, null, null, null, null));
+        }
+        index = RoomSearchIndex.of(rooms);
+    }
+
+    @Benchmark
+    public List<RoomTO> likeScan() {
+        List<RoomTO> matches = new ArrayList<>();
+        for (RoomTO room : rooms) {
+            if (room.description().contains(query)) {
+                matches.add(room);
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public List<RoomTO> invertedIndex() {
+        return index.search(query, null, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<RoomTO> invertedIndexFiltered() {
+        return index.search(query, RoomType.SUITE, 3, LIMIT);
+    }
+}
@@ -3,6 +3,8 @@ package za.co.simplitate.hotelbooking;
 public class Const {
 
     public static final String BEARER = "Bearer ";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     public static final String SUCCESS = "success";
     public static final String ROOM_NOT_FOUND = "Room with id=%d not found";
+    public static final String RATE_RULE_NOT_FOUND = "Rate rule with id=%d not found";
 }
@@ -0,0 +1,31 @@
+package za.co.simplitate.hotelbooking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImageConfig {
+
+    /**
+     * Executor that resizes uploaded room images. Resizing is CPU and heap heavy, so this is a small pool
+     * of platform threads even when virtual threads are enabled, and a full queue rejects new work
+     * rather than making the upload request do it.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageVariantExecutor(@Value("${images.variants.pool-size:2}") int poolSize,
+                                                       @Value("${images.variants.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package za.co.simplitate.hotelbooking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    /**
+     * Executor every BCrypt hash and check runs on. Hashing is pure CPU, so the pool defaults to one
+     * platform thread per core, and a burst beyond the queue is rejected (answered with 429) instead of
+     * stealing cores from every other request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor(@Value("${security.password.hash-threads:0}") int threads,
+                                                       @Value("${security.password.hash-queue-capacity:32}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
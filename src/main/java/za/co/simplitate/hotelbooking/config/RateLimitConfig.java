@@ -0,0 +1,42 @@
+package za.co.simplitate.hotelbooking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import za.co.simplitate.hotelbooking.ratelimit.RateLimitRule;
+
+/**
+ * Per-route limits applied by {@code RateLimitFilter}: a burst capacity and a refill rate per client.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @Order(1)
+    public RateLimitRule authRateLimit(@Value("${rate-limit.auth.capacity:10}") int capacity,
+                                       @Value("${rate-limit.auth.refill-per-minute:10}") int refillPerMinute) {
+        return new RateLimitRule("auth", "/api/auth/", capacity, refillPerMinute);
+    }
+
+    @Bean
+    @Order(2)
+    public RateLimitRule bookingRateLimit(@Value("${rate-limit.bookings.capacity:30}") int capacity,
+                                          @Value("${rate-limit.bookings.refill-per-minute:60}") int refillPerMinute) {
+        return new RateLimitRule("bookings", "/api/bookings/", capacity, refillPerMinute);
+    }
+
+    @Bean
+    @Order(3)
+    public RateLimitRule paymentRateLimit(@Value("${rate-limit.payments.capacity:10}") int capacity,
+                                          @Value("${rate-limit.payments.refill-per-minute:20}") int refillPerMinute) {
+        return new RateLimitRule("payments", "/api/payments/", capacity, refillPerMinute);
+    }
+
+    @Bean
+    @Order(4)
+    public RateLimitRule roomRateLimit(@Value("${rate-limit.rooms.capacity:120}") int capacity,
+                                       @Value("${rate-limit.rooms.refill-per-minute:600}") int refillPerMinute) {
+        return new RateLimitRule("rooms", "/api/rooms/", capacity, refillPerMinute);
+    }
+}
@@ -6,13 +6,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import za.co.simplitate.hotelbooking.dtos.LoginRequest;
+import za.co.simplitate.hotelbooking.dtos.RefreshRequest;
 import za.co.simplitate.hotelbooking.dtos.RegistrationRequest;
 import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.services.TokenService;
 import za.co.simplitate.hotelbooking.services.UserService;
 
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static za.co.simplitate.hotelbooking.Const.BEARER;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/auth")
@@ -21,6 +27,8 @@ public class AuthController {
 
     private final UserService userService;
 
+    private final TokenService tokenService;
+
     @PostMapping("/register")
     public ResponseEntity<Response> registerUser(@RequestBody @Valid RegistrationRequest registrationRequest) {
         log.info("registerUser:: {}", registrationRequest.email());
@@ -32,4 +40,18 @@ public class AuthController {
         log.info("loginUser:: {}", loginRequest.email());
         return ResponseEntity.ok(userService.loginUser(loginRequest));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Response> refreshToken(@RequestBody @Valid RefreshRequest refreshRequest) {
+        return ResponseEntity.ok(tokenService.refresh(refreshRequest.refreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Response> logout(@RequestHeader(value = AUTHORIZATION, required = false) String authorization,
+                                           @RequestBody @Valid RefreshRequest refreshRequest) {
+        String accessToken = authorization != null && authorization.startsWith(BEARER)
+                ? authorization.substring(BEARER.length())
+                : null;
+        return ResponseEntity.ok(tokenService.logout(accessToken, refreshRequest.refreshToken()));
+    }
 }
@@ -1,13 +1,27 @@
 package za.co.simplitate.hotelbooking.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import za.co.simplitate.hotelbooking.dtos.BookingTO;
 import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.enums.BookingStatus;
 import za.co.simplitate.hotelbooking.services.BookingService;
+import za.co.simplitate.hotelbooking.services.IdempotencyService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+import static za.co.simplitate.hotelbooking.Const.IDEMPOTENCY_KEY;
 
 @RestController
 @RequiredArgsConstructor
@@ -15,17 +29,52 @@ import za.co.simplitate.hotelbooking.services.BookingService;
 @Slf4j
 public class BookingController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('CUSTOMER')")
-    public ResponseEntity<Response> getAllBookings() {
-        return ResponseEntity.ok(bookingService.getAllBookings());
+    public ResponseEntity<Response> getAllBookings(@RequestParam(required = false) Long afterId,
+                                                   @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(bookingService.getAllBookings(afterId, limit));
+    }
+
+    /**
+     * Streams matching bookings as newline-delimited JSON, one booking per line, straight to the response
+     * so heap use stays flat however many rows are exported.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void exportBookings(@RequestParam(required = false) LocalDate fromDate,
+                               @RequestParam(required = false) LocalDate toDate,
+                               @RequestParam(required = false) BookingStatus bookingStatus,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.ndjson\"");
+        ObjectWriter writer = objectMapper.writerFor(BookingTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            bookingService.exportBookings(fromDate, toDate, bookingStatus, booking -> {
+                try {
+                    writer.writeValue(generator, booking);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
     }
 
     @PostMapping()
-    public ResponseEntity<Response> createBooking(@RequestBody BookingTO bookingTO) {
-        return ResponseEntity.ok(bookingService.createBooking(bookingTO));
+    public ResponseEntity<Response> createBooking(@RequestBody BookingTO bookingTO,
+                                                  @RequestHeader(name = IDEMPOTENCY_KEY, required = false)
+                                                  String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute("bookings", idempotencyKey, bookingTO,
+                ignored -> bookingService.createBooking(bookingTO)));
     }
 
     @GetMapping("/{reference}")
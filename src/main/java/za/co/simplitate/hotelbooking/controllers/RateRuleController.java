@@ -0,0 +1,41 @@
+package za.co.simplitate.hotelbooking.controllers;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import za.co.simplitate.hotelbooking.dtos.RateRuleTO;
+import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.services.RateRuleService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/rates")
+@PreAuthorize("hasAuthority('ADMIN')")
+@Slf4j
+public class RateRuleController {
+
+    private final RateRuleService rateRuleService;
+
+    @GetMapping("/all")
+    public ResponseEntity<Response> getAllRateRules() {
+        return ResponseEntity.ok(rateRuleService.getAllRateRules());
+    }
+
+    @PostMapping("/add")
+    public ResponseEntity<Response> addRateRule(@RequestBody @Valid RateRuleTO rateRuleTO) {
+        return ResponseEntity.ok(rateRuleService.addRateRule(rateRuleTO));
+    }
+
+    @PutMapping("/update")
+    public ResponseEntity<Response> updateRateRule(@RequestBody @Valid RateRuleTO rateRuleTO) {
+        return ResponseEntity.ok(rateRuleService.updateRateRule(rateRuleTO));
+    }
+
+    @DeleteMapping("/delete/{id}")
+    public ResponseEntity<Response> deleteRateRule(@PathVariable Long id) {
+        return ResponseEntity.ok(rateRuleService.deleteRateRule(id));
+    }
+}
@@ -2,25 +2,43 @@ package za.co.simplitate.hotelbooking.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.dtos.RoomListResponse;
 import za.co.simplitate.hotelbooking.dtos.RoomTO;
 import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.services.RoomCatalogue;
 import za.co.simplitate.hotelbooking.services.RoomService;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
+/**
+ * Room catalogue endpoints. The anonymous catalogue reads carry the catalogue version as a strong ETag and
+ * Last-Modified and must be revalidated, so browsers and the CDN get a 304 without any room being read or
+ * serialized. Room types only change with a deploy and are cached for a day.
+ */
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/rooms")
 @Slf4j
 public class RoomController {
 
+    private static final CacheControl ROOMS_CACHE_CONTROL = CacheControl.noCache().cachePublic();
+    private static final CacheControl TYPES_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePublic();
+    private static final String TYPES_ETAG = "\"types-"
+            + Integer.toHexString(Arrays.toString(RoomType.values()).hashCode()) + "\"";
+
     private final RoomService roomService;
 
     @PostMapping("/add")
@@ -67,13 +85,13 @@ public class RoomController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Response> getAllRooms() {
-        return ResponseEntity.ok(roomService.getAllRooms());
+    public ResponseEntity<RoomListResponse> getAllRooms(WebRequest request) {
+        return conditional(request, roomService::getAllRooms);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Response> getRoomById(@PathVariable Long id) {
-        return ResponseEntity.ok(roomService.getRoomById(id));
+    public ResponseEntity<Response> getRoomById(@PathVariable Long id, WebRequest request) {
+        return conditional(request, () -> roomService.getRoomById(id));
     }
 
     @DeleteMapping("/delete/{id}")
@@ -83,26 +101,44 @@ public class RoomController {
     }
 
     @GetMapping("/available")
-    public ResponseEntity<Response> getAvailableRooms(
+    public ResponseEntity<RoomListResponse> getAvailableRooms(
             @RequestParam LocalDate checkInDate,
             @RequestParam LocalDate checkOutDate,
-            @RequestParam (required = false) RoomType roomType) {
-        return ResponseEntity.ok(roomService.getAvailableRooms(checkInDate, checkOutDate, roomType));
+            @RequestParam (required = false) RoomType roomType,
+            @RequestParam (required = false) Integer minCapacity) {
+        return ResponseEntity.ok(roomService.getAvailableRooms(checkInDate, checkOutDate, roomType, minCapacity));
     }
 
     @GetMapping("/types")
-    public ResponseEntity<List<RoomType>> getRoomTypes() {
-        return ResponseEntity.ok(roomService.getAllRoomTypes());
+    public ResponseEntity<List<RoomType>> getRoomTypes(WebRequest request) {
+        if (request.checkNotModified(TYPES_ETAG)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(TYPES_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().cacheControl(TYPES_CACHE_CONTROL).body(roomService.getAllRoomTypes());
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Response> searchRoom(@RequestParam String input) {
-        return ResponseEntity.ok(roomService.searchRoom(input));
+    public ResponseEntity<Response> searchRoom(@RequestParam String input,
+                                               @RequestParam(required = false) RoomType roomType,
+                                               @RequestParam(required = false) Integer minCapacity) {
+        return ResponseEntity.ok(roomService.searchRoom(input, roomType, minCapacity));
     }
 
     @GetMapping("/roombytype")
-    public ResponseEntity<Response> searchRoom(@RequestParam RoomType roomType) {
-        return ResponseEntity.ok(roomService.getRoomsByType(roomType));
+    public ResponseEntity<Response> searchRoom(@RequestParam RoomType roomType, WebRequest request) {
+        return conditional(request, () -> roomService.getRoomsByType(roomType));
     }
 
+    /**
+     * Answers 304 when the client holds the current catalogue version, otherwise renders the body. The
+     * version is read first so the ETag sent with a body is never newer than the body itself.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, Supplier<T> body) {
+        RoomCatalogue.Version version = roomService.getRoomsVersion();
+        // sets ETag and Last-Modified on the response either way
+        if (request.checkNotModified(version.etag(), version.modifiedAt().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(ROOMS_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().cacheControl(ROOMS_CACHE_CONTROL).body(body.get());
+    }
 }
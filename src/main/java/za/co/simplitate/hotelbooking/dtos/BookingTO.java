@@ -3,8 +3,6 @@ package za.co.simplitate.hotelbooking.dtos;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
-import za.co.simplitate.hotelbooking.entities.Room;
-import za.co.simplitate.hotelbooking.entities.User;
 import za.co.simplitate.hotelbooking.enums.BookingStatus;
 import za.co.simplitate.hotelbooking.enums.PaymentStatus;
 
@@ -16,8 +14,8 @@ import java.time.LocalDate;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record BookingTO(
         Long id,
-        User user,
-        Room room,
+        UserSummaryTO user,
+        RoomSummaryTO room,
         PaymentStatus paymentStatus,
         LocalDate checkInDate,
         LocalDate checkOutDate,
@@ -26,4 +24,12 @@ public record BookingTO(
         LocalDate createdAt,
         BookingStatus bookingStatus
 ) {
+
+    /** Minimal booking without user and room, used by list projections. */
+    public BookingTO(Long id, PaymentStatus paymentStatus, LocalDate checkInDate, LocalDate checkOutDate,
+                     BigDecimal totalPrice, String bookingReference, LocalDate createdAt,
+                     BookingStatus bookingStatus) {
+        this(id, null, null, paymentStatus, checkInDate, checkOutDate, totalPrice, bookingReference, createdAt,
+                bookingStatus);
+    }
 }
@@ -0,0 +1,36 @@
+package za.co.simplitate.hotelbooking.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RateRuleTO(
+        Long id,
+        @NotBlank(message = "Name is required")
+        String name,
+        RoomType roomType,
+        LocalDate startDate,
+        LocalDate endDate,
+        Set<DayOfWeek> daysOfWeek,
+        @Min(value = 1, message = "Occupancy threshold must be between 1 and 100")
+        @Max(value = 100, message = "Occupancy threshold must be between 1 and 100")
+        Integer minOccupancyPercent,
+        @NotNull(message = "Multiplier is required")
+        @DecimalMin(value = "0.01", message = "Multiplier must be at least 0.01")
+        BigDecimal multiplier
+) {
+}
@@ -0,0 +1,8 @@
+package za.co.simplitate.hotelbooking.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+        @NotBlank(message = "Refresh token is required")
+        String refreshToken
+) {}
@@ -16,6 +16,7 @@ public record Response(
 
         // for login
         String token,
+        String refreshToken,
         UserRole role,
         boolean active,
         String expirationTime,
@@ -27,11 +28,16 @@ public record Response(
         // booking data
         BookingTO booking,
         List<BookingTO> bookings,
+        Long nextAfterId,
 
         // Room data
         RoomTO room,
         List<RoomTO> rooms,
 
+        // Rate data
+        RateRuleTO rateRule,
+        List<RateRuleTO> rateRules,
+
         // Payments data
         String transactionId,
         PaymentTO payment,
@@ -0,0 +1,24 @@
+package za.co.simplitate.hotelbooking.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Envelope for the room listing endpoints, carrying only the {@code status}, {@code message} and
+ * {@code rooms} fields of {@link Response} but rendering the same JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RoomListResponse(
+        int status,
+        String message,
+        List<RoomTO> rooms
+) {
+
+    /** Always present on {@link Response} because it is a primitive, so clients may expect it here too. */
+    @JsonProperty("active")
+    public boolean active() {
+        return false;
+    }
+}
@@ -0,0 +1,10 @@
+package za.co.simplitate.hotelbooking.dtos;
+
+import java.time.LocalDate;
+
+public record RoomOccupancy(
+        Long roomId,
+        LocalDate checkInDate,
+        LocalDate checkOutDate
+) {
+}
@@ -0,0 +1,17 @@
+package za.co.simplitate.hotelbooking.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+
+/** The room as shown on a booking; also how a booking request names its room, by id. */
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RoomSummaryTO(
+        Long id,
+        Integer roomNumber,
+        RoomType roomType
+) {
+}
@@ -7,7 +7,7 @@ import za.co.simplitate.hotelbooking.enums.RoomType;
 
 import java.math.BigDecimal;
 
-@Builder
+@Builder(toBuilder = true)
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record RoomTO(
@@ -17,6 +17,11 @@ public record RoomTO(
         BigDecimal pricePerNight,
         Integer capacity,
         String description,
-        String imageUrl
+        String imageUrl,
+        String thumbnailUrl,
+        String mediumUrl,
+        String fullUrl,
+        // price of the requested stay, set on availability listings
+        BigDecimal totalPrice
 ) {
 }
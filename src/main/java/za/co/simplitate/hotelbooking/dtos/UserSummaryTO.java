@@ -0,0 +1,16 @@
+package za.co.simplitate.hotelbooking.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+/** The guest as shown on a booking. */
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserSummaryTO(
+        Long id,
+        String firstName,
+        String lastName
+) {
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import za.co.simplitate.hotelbooking.enums.BookingStatus;
 import za.co.simplitate.hotelbooking.enums.PaymentStatus;
 
@@ -12,7 +14,15 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name="bookings")
+@Table(name="bookings", indexes = {
+        @Index(name = "idx_bookings_room_dates_status",
+                columnList = "room_id, check_in_date, check_out_date, booking_status"),
+        @Index(name = "uk_bookings_booking_reference", columnList = "booking_reference", unique = true)
+})
+@NamedEntityGraph(name = "Booking.withUser", attributeNodes = @NamedAttributeNode("user"))
+@NamedEntityGraph(name = "Booking.withRoom", attributeNodes = @NamedAttributeNode("room"))
+@NamedEntityGraph(name = "Booking.withUserAndRoom",
+        attributeNodes = {@NamedAttributeNode("user"), @NamedAttributeNode("room")})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -25,18 +35,51 @@ import java.time.LocalDate;
     AND :checkOutDate >= b.checkInDate
     AND b.bookingStatus IN ('BOOKED', 'CHECKED_IN')
     """)
+@NamedQuery(name = "Booking.findBookingPage", query = """
+    SELECT new za.co.simplitate.hotelbooking.dtos.BookingTO(b.id, b.paymentStatus, b.checkInDate, b.checkOutDate,
+        b.totalPrice, b.bookingReference, b.createdAt, b.bookingStatus)
+    FROM Booking b
+    WHERE b.id < :afterId
+    ORDER BY b.id DESC
+""")
+@NamedQuery(name = "Booking.streamBookings", query = """
+    SELECT new za.co.simplitate.hotelbooking.dtos.BookingTO(b.id, b.paymentStatus, b.checkInDate, b.checkOutDate,
+        b.totalPrice, b.bookingReference, b.createdAt, b.bookingStatus)
+    FROM Booking b
+    WHERE (:fromDate IS NULL OR b.checkInDate >= :fromDate)
+    AND (:toDate IS NULL OR b.checkInDate <= :toDate)
+    AND (:bookingStatus IS NULL OR b.bookingStatus = :bookingStatus)
+    ORDER BY b.id
+""")
+@NamedQuery(name = "Booking.findActiveStays", query = """
+    SELECT new za.co.simplitate.hotelbooking.dtos.RoomOccupancy(b.room.id, b.checkInDate, b.checkOutDate)
+    FROM Booking b
+    WHERE b.checkOutDate >= :fromDate
+    AND b.bookingStatus IN ('BOOKED', 'CHECKED_IN')
+    """)
+@NamedQuery(name = "Booking.findActiveStaysByRoom", query = """
+    SELECT new za.co.simplitate.hotelbooking.dtos.RoomOccupancy(b.room.id, b.checkInDate, b.checkOutDate)
+    FROM Booking b
+    WHERE b.room.id = :roomId
+    AND b.checkOutDate >= :fromDate
+    AND b.bookingStatus IN ('BOOKED', 'CHECKED_IN')
+    """)
 public class Booking {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(cascade = CascadeType.REMOVE) // remove bookings if user is deleted
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.REMOVE) // remove bookings if user is deleted
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
-    @ManyToOne(cascade = CascadeType.REMOVE) // remove bookings if room is deleted
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.REMOVE) // remove bookings if room is deleted
     @JoinColumn(name = "room_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Room room;
 
     @Enumerated(EnumType.STRING)
@@ -1,23 +0,0 @@
-package za.co.simplitate.hotelbooking.entities;
-
-import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Entity
-@Table(name="booking_reference")
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-@Builder
-public class BookingReference {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(unique = true, nullable = false)
-    private String referenceNumber;
-}
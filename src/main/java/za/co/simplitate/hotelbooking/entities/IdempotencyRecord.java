@@ -0,0 +1,59 @@
+package za.co.simplitate.hotelbooking.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The outcome of a request sent with an Idempotency-Key. The id is the SHA-256 of the endpoint, user and
+ * key, and the request body is kept only as its SHA-256. A row without a response is claimed by a request
+ * that is still running, or that stopped without storing its response.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@NamedQuery(name = "IdempotencyRecord.claim", query = """
+    INSERT INTO IdempotencyRecord (id, requestHash, createdAt, expiresAt)
+    VALUES (:id, :requestHash, :createdAt, :expiresAt)
+    ON CONFLICT DO NOTHING
+    """)
+@NamedQuery(name = "IdempotencyRecord.complete", query = """
+    UPDATE IdempotencyRecord r
+    SET r.response = :response
+    WHERE r.id = :id
+    """)
+@NamedQuery(name = "IdempotencyRecord.release", query = """
+    DELETE FROM IdempotencyRecord r
+    WHERE r.id = :id
+    AND r.expiresAt < :now
+    """)
+@NamedQuery(name = "IdempotencyRecord.deleteExpired", query = """
+    DELETE FROM IdempotencyRecord r
+    WHERE r.expiresAt < :now
+    """)
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    /** The Response as encrypted JSON, null while the request is running. */
+    @Column(length = 1_000_000)
+    private String response;
+
+    private Instant createdAt;
+
+    private Instant expiresAt;
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import za.co.simplitate.hotelbooking.enums.NotificationStatus;
 import za.co.simplitate.hotelbooking.enums.NotificationType;
 
 import java.time.LocalDateTime;
@@ -16,6 +17,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@NamedNativeQuery(name = "Notification.findDueForDispatch", resultClass = Notification.class, query = """
+    SELECT *
+    FROM notifications
+    WHERE status IN ('PENDING', 'SENDING')
+    AND next_attempt_at <= :now
+    ORDER BY id
+    LIMIT :batchSize
+    FOR UPDATE SKIP LOCKED
+    """)
 public class Notification {
 
     @Id
@@ -35,4 +45,19 @@ public class Notification {
     private String bookingReference;
 
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // outbox state, see NotificationDispatcher
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus status;
+
+    // nullable with a default, so ddl-auto=update can add it to a notifications table that already holds rows
+    @Builder.Default
+    @Column(columnDefinition = "integer default 0")
+    private Integer attempts = 0;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime sentAt;
+
+    private String lastError;
 }
@@ -0,0 +1,64 @@
+package za.co.simplitate.hotelbooking.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A price multiplier applied to the nights it matches. A night matches when every condition that is set
+ * holds: the room type, the date range (inclusive), the day of the week, and the share of rooms of that type
+ * already booked that night. All matching rules multiply together on top of {@code Room.pricePerNight}.
+ */
+@Entity
+@Table(name="rate_rules")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RateRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    // null applies to every room type
+    @Enumerated(EnumType.STRING)
+    private RoomType roomType;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    // empty applies to every day
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "rate_rule_days", joinColumns = @JoinColumn(name = "rate_rule_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week")
+    @Builder.Default
+    private Set<DayOfWeek> daysOfWeek = new HashSet<>();
+
+    @Min(value = 1, message = "Occupancy threshold must be between 1 and 100")
+    @Max(value = 100, message = "Occupancy threshold must be between 1 and 100")
+    private Integer minOccupancyPercent;
+
+    @NotNull(message = "Multiplier is required")
+    @DecimalMin(value = "0.01", message = "Multiplier must be at least 0.01")
+    private BigDecimal multiplier;
+}
@@ -0,0 +1,69 @@
+package za.co.simplitate.hotelbooking.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * A refresh token, stored as the SHA-256 of the value handed to the client. Each refresh marks the token
+ * used and issues a successor in the same family; a used token presented again ends the whole family.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "uk_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+@NamedEntityGraph(name = "RefreshToken.withUser", attributeNodes = @NamedAttributeNode("user"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@NamedQuery(name = "RefreshToken.markUsed", query = """
+    UPDATE RefreshToken t
+    SET t.usedAt = :usedAt
+    WHERE t.id = :id
+    AND t.usedAt IS NULL
+    """)
+@NamedQuery(name = "RefreshToken.deleteFamily", query = """
+    DELETE FROM RefreshToken t
+    WHERE t.familyId = :familyId
+    """)
+@NamedQuery(name = "RefreshToken.deleteByUserId", query = """
+    DELETE FROM RefreshToken t
+    WHERE t.user.id = :userId
+    """)
+@NamedQuery(name = "RefreshToken.deleteExpired", query = """
+    DELETE FROM RefreshToken t
+    WHERE t.expiresAt < :now
+    """)
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    private Instant createdAt;
+
+    private Instant expiresAt;
+
+    private Instant usedAt;
+}
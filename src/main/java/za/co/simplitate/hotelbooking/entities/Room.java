@@ -20,12 +20,27 @@ import java.math.BigDecimal;
 @NamedQuery(name = "Room.findAvailableRooms", query = """
     SELECT r
     FROM Room r
-    WHERE r.roomType = :roomType
+    WHERE (:roomType IS NULL OR r.roomType = :roomType)
+    AND (:minCapacity IS NULL OR r.capacity >= :minCapacity)
+    AND NOT EXISTS (
+        SELECT b.id
+        FROM Booking b
+        WHERE b.room = r
+        AND :checkInDate <= b.checkOutDate
+        AND :checkOutDate >= b.checkInDate
+        AND b.bookingStatus IN ('BOOKED', 'CHECKED_IN'))
+    ORDER BY r.id DESC
     """)
-@NamedQuery(name = "Room.findByDescription", query = """
+@NamedQuery(name = "Room.findRoomForUpdate", query = """
     SELECT r
     FROM Room r
-    WHERE r.description LIKE CONCAT('%', :searchParam, '%')
+    WHERE r.id = :roomId
+    """)
+@NamedQuery(name = "Room.updateImageVariants", query = """
+    UPDATE Room r
+    SET r.thumbnailUrl = :thumbnailUrl, r.mediumUrl = :mediumUrl, r.fullUrl = :fullUrl
+    WHERE r.id = :roomId
+    AND r.imageUrl = :imageUrl
     """)
 public class Room {
 
@@ -50,4 +65,11 @@ public class Room {
 
     private String imageUrl;
 
+    /** Resized variants of {@link #imageUrl}, filled in by the image pipeline once it has caught up. */
+    private String thumbnailUrl;
+
+    private String mediumUrl;
+
+    private String fullUrl;
+
 }
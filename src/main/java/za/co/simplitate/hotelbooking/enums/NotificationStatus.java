@@ -0,0 +1,5 @@
+package za.co.simplitate.hotelbooking.enums;
+
+public enum NotificationStatus {
+    PENDING, SENDING, SENT, FAILED
+}
@@ -0,0 +1,7 @@
+package za.co.simplitate.hotelbooking.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
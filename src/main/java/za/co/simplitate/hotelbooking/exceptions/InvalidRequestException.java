@@ -0,0 +1,7 @@
+package za.co.simplitate.hotelbooking.exceptions;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
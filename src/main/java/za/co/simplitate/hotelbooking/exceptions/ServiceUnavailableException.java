@@ -0,0 +1,7 @@
+package za.co.simplitate.hotelbooking.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
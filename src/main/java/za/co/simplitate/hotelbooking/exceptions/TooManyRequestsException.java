@@ -0,0 +1,7 @@
+package za.co.simplitate.hotelbooking.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,107 @@
+package za.co.simplitate.hotelbooking.images;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores images under {@code images.filesystem.root} as {@code <first two hash chars>/<key>}. Uploads stream
+ * into a temp file in the same directory tree while being hashed, then move into place atomically; if the
+ * key already exists the temp file is dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "images.store", havingValue = "filesystem", matchIfMissing = true)
+@Slf4j
+public class FileSystemImageStore implements ImageStore {
+
+    private final Path root;
+    private final Path staging;
+
+    public FileSystemImageStore(@Value("${images.filesystem.root:${user.dir}/product-image}") Path root)
+            throws IOException {
+        this.root = root.toAbsolutePath();
+        this.staging = Files.createDirectories(this.root.resolve("staging"));
+    }
+
+    @Override
+    public String store(InputStream content, long contentLength, String contentType) throws IOException {
+        ImageKeys.extension(contentType);
+        MessageDigest sha256 = ImageKeys.sha256();
+        Path temp = staging.resolve(UUID.randomUUID().toString());
+        try {
+            try (InputStream in = new DigestInputStream(content, sha256)) {
+                Files.copy(in, temp);
+            }
+            String key = ImageKeys.key(sha256, contentType);
+            Path target = pathOf(key);
+            if (Files.exists(target)) {
+                log.info("store: image {} already stored", key);
+                return key;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                log.debug("store: image {} stored concurrently", key);
+            }
+            log.info("store: stored image {}", key);
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<StoredImage> find(String key) throws IOException {
+        if (!ImageKeys.isValid(key)) {
+            return Optional.empty();
+        }
+        Path path = pathOf(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new LocalImage(key, path, Files.size(path)));
+    }
+
+    private Path pathOf(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private record LocalImage(String key, Path path, long length) implements StoredImage {
+
+        @Override
+        public Optional<Path> localPath() {
+            return Optional.of(path);
+        }
+
+        @Override
+        public void writeTo(long start, long length, OutputStream out) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = start;
+                long remaining = length;
+                while (remaining > 0) {
+                    long sent = channel.transferTo(position, remaining, target);
+                    if (sent <= 0) {
+                        break;
+                    }
+                    position += sent;
+                    remaining -= sent;
+                }
+            }
+        }
+    }
+}
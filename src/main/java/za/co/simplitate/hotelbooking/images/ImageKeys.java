@@ -0,0 +1,61 @@
+package za.co.simplitate.hotelbooking.images;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Image keys are {@code <sha256 hex>.<extension>}; the extension carries the content type.
+ */
+public final class ImageKeys {
+
+    public static final String URL_PREFIX = "/api/images/";
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif|webp)");
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif",
+            "image/webp", "webp");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "webp", "image/webp");
+
+    private ImageKeys() {}
+
+    public static String key(MessageDigest sha256, String contentType) {
+        return HexFormat.of().formatHex(sha256.digest()) + "." + extension(contentType);
+    }
+
+    public static String extension(String contentType) {
+        String extension = contentType != null ? EXTENSIONS.get(contentType.toLowerCase()) : null;
+        if (extension == null) {
+            throw new IllegalArgumentException("Only image file allowed!!");
+        }
+        return extension;
+    }
+
+    public static boolean isValid(String key) {
+        return key != null && KEY.matcher(key).matches();
+    }
+
+    public static String contentType(String key) {
+        return CONTENT_TYPES.get(key.substring(key.lastIndexOf('.') + 1));
+    }
+
+    public static String hash(String key) {
+        return key.substring(0, key.indexOf('.'));
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package za.co.simplitate.hotelbooking.images;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Content-addressed image storage. Images are keyed by the SHA-256 of their bytes plus an extension for the
+ * content type ({@code <sha256>.jpg}), so storing the same image twice keeps a single copy and a key never
+ * points at different content.
+ */
+public interface ImageStore {
+
+    /**
+     * Streams {@code content} into the store, hashing it on the way through.
+     *
+     * @return the image key
+     */
+    String store(InputStream content, long contentLength, String contentType) throws IOException;
+
+    Optional<StoredImage> find(String key) throws IOException;
+}
@@ -0,0 +1,22 @@
+package za.co.simplitate.hotelbooking.images;
+
+/**
+ * Resized renditions of a room image, bounded by width. All variants are re-encoded as JPEG, including
+ * {@link #FULL}, which caps what a detail page downloads even when the original is a huge PNG.
+ */
+public enum ImageVariant {
+
+    THUMBNAIL(320),
+    MEDIUM(960),
+    FULL(1920);
+
+    private final int maxWidth;
+
+    ImageVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int maxWidth() {
+        return maxWidth;
+    }
+}
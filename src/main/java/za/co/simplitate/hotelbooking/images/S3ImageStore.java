@@ -0,0 +1,146 @@
+package za.co.simplitate.hotelbooking.images;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores images in an S3-compatible bucket (AWS S3, or MinIO locally with {@code images.s3.endpoint}).
+ * Uploads stream to a staging object while being hashed, then a server-side copy moves them to their
+ * content key unless that key already exists.
+ */
+@Component
+@ConditionalOnProperty(name = "images.store", havingValue = "s3")
+@Slf4j
+public class S3ImageStore implements ImageStore, DisposableBean {
+
+    private static final String STAGING_PREFIX = "staging/";
+
+    private final S3Client s3Client;
+    private final String bucket;
+
+    public S3ImageStore(@Value("${images.s3.bucket}") String bucket,
+                        @Value("${images.s3.region:us-east-1}") String region,
+                        @Value("${images.s3.endpoint:}") String endpoint,
+                        @Value("${images.s3.access-key:}") String accessKey,
+                        @Value("${images.s3.secret-key:}") String secretKey) {
+        S3ClientBuilder builder = S3Client.builder()
+                .httpClientBuilder(UrlConnectionHttpClient.builder())
+                .region(Region.of(region));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        builder.credentialsProvider(accessKey.isBlank()
+                ? DefaultCredentialsProvider.builder().build()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        this.s3Client = builder.build();
+        this.bucket = bucket;
+    }
+
+    @Override
+    public String store(InputStream content, long contentLength, String contentType) throws IOException {
+        ImageKeys.extension(contentType);
+        MessageDigest sha256 = ImageKeys.sha256();
+        String stagingKey = STAGING_PREFIX + UUID.randomUUID();
+        try (InputStream in = new DigestInputStream(content, sha256)) {
+            s3Client.putObject(put -> put.bucket(bucket).key(stagingKey).contentType(contentType),
+                    RequestBody.fromInputStream(in, contentLength));
+        }
+        String key = ImageKeys.key(sha256, contentType);
+        try {
+            if (head(key).isPresent()) {
+                log.info("store: image {} already stored", key);
+            } else {
+                s3Client.copyObject(copy -> copy.sourceBucket(bucket).sourceKey(stagingKey)
+                        .destinationBucket(bucket).destinationKey(key));
+                log.info("store: stored image {}", key);
+            }
+        } finally {
+            s3Client.deleteObject(delete -> delete.bucket(bucket).key(stagingKey));
+        }
+        return key;
+    }
+
+    @Override
+    public Optional<StoredImage> find(String key) {
+        if (!ImageKeys.isValid(key)) {
+            return Optional.empty();
+        }
+        return head(key).map(head -> new RemoteImage(key, head.contentLength()));
+    }
+
+    private Optional<HeadObjectResponse> head(String key) {
+        try {
+            return Optional.of(s3Client.headObject(head -> head.bucket(bucket).key(key)));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        s3Client.close();
+    }
+
+    private final class RemoteImage implements StoredImage {
+
+        private final String key;
+        private final long length;
+
+        private RemoteImage(String key, long length) {
+            this.key = key;
+            this.length = length;
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public Optional<Path> localPath() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void writeTo(long start, long length, OutputStream out) throws IOException {
+            if (length <= 0) {
+                return;
+            }
+            String range = "bytes=" + start + "-" + (start + length - 1);
+            try (ResponseInputStream<GetObjectResponse> in =
+                         s3Client.getObject(get -> get.bucket(bucket).key(key).range(range))) {
+                in.transferTo(out);
+            }
+        }
+    }
+}
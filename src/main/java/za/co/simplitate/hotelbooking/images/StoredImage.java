@@ -0,0 +1,22 @@
+package za.co.simplitate.hotelbooking.images;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface StoredImage {
+
+    String key();
+
+    long length();
+
+    /**
+     * @return the file backing the image when it lives on local disk, which lets the container send it with
+     * zero-copy sendfile
+     */
+    Optional<Path> localPath();
+
+    /** Writes {@code length} bytes starting at {@code start} to {@code out}. */
+    void writeTo(long start, long length, OutputStream out) throws IOException;
+}
@@ -0,0 +1,15 @@
+package za.co.simplitate.hotelbooking.notifications;
+
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.List;
+
+public interface MailDelivery {
+
+    /**
+     * Sends a batch of messages over one connection.
+     *
+     * @return one entry per message, in order: null when it was sent, otherwise the failure
+     */
+    List<Exception> send(List<SimpleMailMessage> messages);
+}
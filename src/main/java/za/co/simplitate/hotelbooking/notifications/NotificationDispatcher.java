@@ -0,0 +1,146 @@
+package za.co.simplitate.hotelbooking.notifications;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.co.simplitate.hotelbooking.entities.Notification;
+import za.co.simplitate.hotelbooking.enums.NotificationStatus;
+import za.co.simplitate.hotelbooking.repositories.NotificationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Drains the notifications outbox. Each poll claims due rows with {@code FOR UPDATE SKIP LOCKED}, marks
+ * them SENDING with a lease, hands them to the bounded notification pool in chunks (one SMTP connection
+ * per chunk, see {@link MailDelivery}) and records the outcome: SENT, PENDING again with exponential
+ * backoff, or FAILED once attempts run out. Rows whose lease expires (e.g. the node died mid-send) are
+ * claimed again.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final NotificationRepository notificationRepository;
+    private final MailDelivery mailDelivery;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor notificationExecutor;
+    private final int batchSize;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  MailDelivery mailDelivery,
+                                  TransactionTemplate transactionTemplate,
+                                  @Qualifier("notificationExecutor") Executor notificationExecutor,
+                                  @Value("${notifications.dispatcher.batch-size:100}") int batchSize,
+                                  @Value("${notifications.dispatcher.chunk-size:20}") int chunkSize,
+                                  @Value("${notifications.dispatcher.max-attempts:8}") int maxAttempts,
+                                  @Value("${notifications.dispatcher.initial-backoff-seconds:30}") long initialBackoffSeconds) {
+        this.notificationRepository = notificationRepository;
+        this.mailDelivery = mailDelivery;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationExecutor = notificationExecutor;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.dispatcher.poll-interval-ms:2000}")
+    public void dispatch() {
+        List<Notification> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private List<Notification> claimBatch() {
+        List<Notification> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Notification> due = notificationRepository.findDueForDispatch(now, batchSize);
+            for (Notification notification : due) {
+                notification.setStatus(NotificationStatus.SENDING);
+                notification.setNextAttemptAt(now.plus(LEASE));
+            }
+            return notificationRepository.saveAll(due);
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private void deliver(List<Notification> batch) {
+        log.info("deliver: sending {} notifications", batch.size());
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<Notification> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            chunks.add(CompletableFuture.runAsync(() -> send(chunk), notificationExecutor));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        notificationRepository.saveAll(batch);
+    }
+
+    private void send(List<Notification> chunk) {
+        List<SimpleMailMessage> messages = chunk.stream()
+                .map(NotificationDispatcher::createSimpleEmailMessage)
+                .toList();
+        List<Exception> results = mailDelivery.send(messages);
+        for (int i = 0; i < chunk.size(); i++) {
+            recordOutcome(chunk.get(i), results.get(i));
+        }
+    }
+
+    private void recordOutcome(Notification notification, Exception failure) {
+        notification.setAttempts(notification.getAttempts() + 1);
+        if (failure == null) {
+            notification.setStatus(NotificationStatus.SENT);
+            notification.setSentAt(LocalDateTime.now());
+            notification.setLastError(null);
+        } else {
+            log.warn("recordOutcome: notification id={} attempt {} failed: {}", notification.getId(),
+                    notification.getAttempts(), failure.getMessage());
+            notification.setLastError(truncate(failure.getMessage()));
+            if (notification.getAttempts() >= maxAttempts) {
+                notification.setStatus(NotificationStatus.FAILED);
+            } else {
+                notification.setStatus(NotificationStatus.PENDING);
+                notification.setNextAttemptAt(LocalDateTime.now().plus(backoff(notification.getAttempts())));
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static SimpleMailMessage createSimpleEmailMessage(Notification notification) {
+        SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
+        simpleMailMessage.setTo(notification.getRecipient());
+        simpleMailMessage.setSubject(notification.getSubject());
+        simpleMailMessage.setText(notification.getBody());
+        return simpleMailMessage;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
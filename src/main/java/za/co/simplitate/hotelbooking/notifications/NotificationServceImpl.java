@@ -2,54 +2,48 @@ package za.co.simplitate.hotelbooking.notifications;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import za.co.simplitate.hotelbooking.dtos.NotificationTO;
 import za.co.simplitate.hotelbooking.entities.Notification;
+import za.co.simplitate.hotelbooking.enums.NotificationStatus;
 import za.co.simplitate.hotelbooking.enums.NotificationType;
 import za.co.simplitate.hotelbooking.repositories.NotificationRepository;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationServceImpl implements NotificationService {
 
-    private final JavaMailSender javaMailSender;
-
     private final NotificationRepository notificationRepository;
 
 
     /**
-     * Sends an email notification asynchronously using the provided notification details.
+     * Queues an email notification in the outbox. The row joins the caller's transaction, so it is only
+     * visible to {@link NotificationDispatcher} once the booking or payment that triggered it commits.
      *
      * @param notificationTO
      */
     @Override
-    @Async
+    @Transactional
     public void sendEmail(NotificationTO notificationTO) {
-        log.info("sendEmail: {}", notificationTO);
-        SimpleMailMessage simpleMailMessage = createSimpleEmailMessage(notificationTO);
-        javaMailSender.send(simpleMailMessage);
+        log.info("sendEmail: queueing {}", notificationTO);
         persistInDatabase(notificationTO);
     }
 
-    private static SimpleMailMessage createSimpleEmailMessage(NotificationTO notificationTO) {
-        SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-        simpleMailMessage.setTo(notificationTO.recipient());
-        simpleMailMessage.setSubject(notificationTO.subject());
-        simpleMailMessage.setText(notificationTO.body());
-        return simpleMailMessage;
-    }
-
     private void persistInDatabase(NotificationTO notificationTO) {
+        LocalDateTime now = LocalDateTime.now();
         Notification notificationEntity = Notification.builder()
                 .recipient(notificationTO.recipient())
                 .subject(notificationTO.subject())
                 .body(notificationTO.body())
                 .bookingReference(notificationTO.bookingReference())
                 .notificationType(NotificationType.EMAIL)
+                .status(NotificationStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
                 .build();
         notificationRepository.save(notificationEntity);
     }
@@ -0,0 +1,170 @@
+package za.co.simplitate.hotelbooking.notifications;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Delivers mail over a small pool of SMTP transports that stay connected and authenticated between
+ * batches, so a batch costs one connection checkout instead of a TCP connect, STARTTLS handshake and
+ * AUTH per message. A transport is validated once when it is taken from the pool, not before every message
+ * (each check is an SMTP NOOP round trip); if a send fails mid-batch the transport is replaced and the message
+ * retried once.
+ */
+@Component
+@Slf4j
+public class PooledSmtpMailDelivery implements MailDelivery, DisposableBean {
+
+    private final JavaMailSenderImpl javaMailSender;
+    private final BlockingQueue<Transport> idleTransports = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter connectionCounter;
+
+    public PooledSmtpMailDelivery(JavaMailSenderImpl javaMailSender,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notifications.smtp.pool-size:4}") int poolSize) {
+        this.javaMailSender = javaMailSender;
+        this.permits = new Semaphore(poolSize, true);
+        this.batchTimer = Timer.builder("notifications.smtp.batch")
+                .description("Time to deliver one batch over a pooled SMTP connection")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("notifications.smtp.messages", "result", "sent");
+        this.failedCounter = meterRegistry.counter("notifications.smtp.messages", "result", "failed");
+        this.connectionCounter = meterRegistry.counter("notifications.smtp.connections");
+    }
+
+    @Override
+    public List<Exception> send(List<SimpleMailMessage> messages) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            MailSendException interrupted = new MailSendException("Interrupted waiting for an SMTP connection");
+            return messages.stream().<Exception>map(message -> interrupted).toList();
+        }
+        try {
+            return batchTimer.record(() -> sendBatch(messages));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private List<Exception> sendBatch(List<SimpleMailMessage> messages) {
+        List<Exception> results = new ArrayList<>(messages.size());
+        Transport transport = null;
+        for (SimpleMailMessage message : messages) {
+            try {
+                MimeMessage mimeMessage = toMimeMessage(message);
+                if (transport == null) {
+                    transport = checkout();
+                }
+                try {
+                    transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                } catch (SendFailedException e) {
+                    // recipients rejected, the connection itself is fine
+                    throw e;
+                } catch (MessagingException e) {
+                    // the server may have dropped the connection mid-batch: reconnect once and retry
+                    log.debug("sendBatch: reconnecting after {}", e.getMessage());
+                    close(transport);
+                    transport = null;
+                    transport = connect();
+                    transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                }
+                results.add(null);
+                sentCounter.increment();
+            } catch (Exception e) {
+                log.warn("sendBatch: could not send to {}: {}", Arrays.toString(message.getTo()), e.getMessage());
+                results.add(e);
+                failedCounter.increment();
+            }
+        }
+        release(transport);
+        return results;
+    }
+
+    private Transport checkout() throws MessagingException {
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            if (transport.isConnected()) {
+                return transport;
+            }
+            close(transport);
+        }
+        return connect();
+    }
+
+    private Transport connect() throws MessagingException {
+        String username = javaMailSender.getUsername();
+        String password = javaMailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        Session session = javaMailSender.getSession();
+        String protocol = javaMailSender.getProtocol() != null
+                ? javaMailSender.getProtocol()
+                : session.getProperty("mail.transport.protocol");
+        Transport transport = session.getTransport(protocol != null ? protocol : "smtp");
+        transport.connect(javaMailSender.getHost(), javaMailSender.getPort(), username, password);
+        connectionCounter.increment();
+        log.debug("connect: opened SMTP connection to {}", javaMailSender.getHost());
+        return transport;
+    }
+
+    private void release(Transport transport) {
+        if (transport != null && !idleTransports.offer(transport)) {
+            close(transport);
+        }
+    }
+
+    private MimeMessage toMimeMessage(SimpleMailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        message.copyTo(new MimeMailMessage(mimeMessage));
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    private static void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("close: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            close(transport);
+        }
+    }
+}
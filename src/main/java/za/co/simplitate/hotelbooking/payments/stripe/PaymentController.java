@@ -4,6 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.services.IdempotencyService;
+
+import static za.co.simplitate.hotelbooking.Const.IDEMPOTENCY_KEY;
 
 @RestController
 @RequiredArgsConstructor
@@ -11,10 +14,14 @@ import za.co.simplitate.hotelbooking.dtos.Response;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/pay")
-    public ResponseEntity<Response> initiliasePayment(@RequestBody PaymentRequest paymentRequest) {
-        return ResponseEntity.ok(paymentService.createPaymentIntent(paymentRequest));
+    public ResponseEntity<Response> initiliasePayment(@RequestBody PaymentRequest paymentRequest,
+                                                      @RequestHeader(name = IDEMPOTENCY_KEY, required = false)
+                                                      String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute("payments", idempotencyKey, paymentRequest,
+                stripeKey -> paymentService.createPaymentIntent(paymentRequest, stripeKey)));
     }
 
     @PutMapping("/update")
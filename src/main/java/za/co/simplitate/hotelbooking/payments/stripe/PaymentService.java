@@ -1,10 +1,12 @@
 package za.co.simplitate.hotelbooking.payments.stripe;
 
+import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.param.PaymentIntentCreateParams;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import za.co.simplitate.hotelbooking.dtos.NotificationTO;
 import za.co.simplitate.hotelbooking.dtos.Response;
 import za.co.simplitate.hotelbooking.entities.Booking;
@@ -30,8 +32,12 @@ public class PaymentService {
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
     private final NotificationService notificationService;
+    private final StripeGateway stripeGateway;
 
-    public Response createPaymentIntent(PaymentRequest paymentRequest) {
+    /**
+     * @param idempotencyKey sent to Stripe so a retry gets the same PaymentIntent back, may be null
+     */
+    public Response createPaymentIntent(PaymentRequest paymentRequest, String idempotencyKey) {
         log.info("createPaymentIntent: ");
 
         String bookingReference = getAndValidateBookingRef(paymentRequest);
@@ -42,7 +48,7 @@ public class PaymentService {
                     .setCurrency("usd")
                     .putMetadata("bookingReference", bookingReference)
                     .build();
-            PaymentIntent intent = PaymentIntent.create(params);
+            PaymentIntent intent = stripeGateway.createPaymentIntent(params, idempotencyKey);
             String uniqueTransactionId = intent.getClientSecret();
 
             return Response.builder()
@@ -51,15 +57,16 @@ public class PaymentService {
                     .transactionId(uniqueTransactionId)
                     .build();
 
-        } catch (Exception ex) {
+        } catch (StripeException ex) {
             throw new RuntimeException("Error creating transaction id");
         }
     }
 
+    @Transactional
     public void updatePaymentBooking(PaymentRequest paymentRequest) {
         log.info("updatePaymentBooking: ...");
         String bookingRef = paymentRequest.getBookingReference();
-        Booking booking = bookingRepository.findBookingByBookingReference(bookingRef)
+        Booking booking = bookingRepository.findForPaymentByBookingReference(bookingRef)
                 .orElseThrow(() -> new NotFoundException("Booking not found!!"));
 
         PaymentEntity payment = createPaymentEntity(paymentRequest, bookingRef, booking);
@@ -111,7 +118,7 @@ public class PaymentService {
 
     private String getAndValidateBookingRef(PaymentRequest paymentRequest) {
         String bookingReference = paymentRequest.getBookingReference();
-        Booking booking = bookingRepository.findBookingByBookingReference(bookingReference)
+        Booking booking = bookingRepository.findForPaymentByBookingReference(bookingReference)
                 .orElseThrow(() -> new NotFoundException("Booking not found!!"));
 
         if(booking.getPaymentStatus() == PaymentStatus.COMPLETED) {
@@ -0,0 +1,68 @@
+package za.co.simplitate.hotelbooking.payments.stripe;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCreateParams;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import za.co.simplitate.hotelbooking.exceptions.ServiceUnavailableException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking Stripe calls behind a bulkhead. With virtual threads nothing else limits how many requests
+ * wait on Stripe at once, so calls beyond {@code payments.stripe.max-concurrent-calls} wait briefly for
+ * a permit and are then turned away with a 503 instead of piling up.
+ */
+@Component
+@Slf4j
+public class StripeGateway {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    public StripeGateway(@Value("${payments.stripe.max-concurrent-calls:20}") int maxConcurrentCalls,
+                         @Value("${payments.stripe.acquire-timeout-ms:2000}") long acquireTimeoutMillis,
+                         @Value("${payments.stripe.connect-timeout-ms:5000}") int connectTimeoutMillis,
+                         @Value("${payments.stripe.read-timeout-ms:15000}") int readTimeoutMillis) {
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * @param idempotencyKey Stripe returns the PaymentIntent it created for an earlier call with the same
+     *                       key rather than creating another one, may be null
+     */
+    public PaymentIntent createPaymentIntent(PaymentIntentCreateParams params, String idempotencyKey)
+            throws StripeException {
+        acquire();
+        try {
+            return PaymentIntent.create(params, RequestOptions.builder()
+                    .setConnectTimeout(connectTimeoutMillis)
+                    .setReadTimeout(readTimeoutMillis)
+                    .setIdempotencyKey(idempotencyKey)
+                    .build());
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("acquire: all Stripe call permits in use");
+                throw new ServiceUnavailableException("Payment service is busy, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Payment service is busy, please try again");
+        }
+    }
+}
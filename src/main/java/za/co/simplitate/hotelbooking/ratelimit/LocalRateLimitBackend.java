@@ -0,0 +1,58 @@
+package za.co.simplitate.hotelbooking.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets in this process. Each bucket is a single {@link AtomicLong}, the time at which it will be
+ * full again (the generic cell rate algorithm, equivalent to a token bucket), updated by compare-and-set,
+ * so requests never block each other. A bucket past that time is the same as a new one and is evicted.
+ */
+@Component
+@Slf4j
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryConsume(String key, RateLimitRule rule) {
+        long now = System.nanoTime();
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt == null) {
+            fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        long interval = rule.intervalNanos();
+        long burst = interval * rule.capacity();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops full buckets. A request racing with the eviction may take its token from the dropped bucket,
+     * which at worst lets that one request through for free.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+        log.debug("evictIdle: {} active buckets", buckets.size());
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
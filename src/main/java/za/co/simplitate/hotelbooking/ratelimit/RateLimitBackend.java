@@ -0,0 +1,14 @@
+package za.co.simplitate.hotelbooking.ratelimit;
+
+/**
+ * Where the token buckets live: in this process, or shared by every node of a cluster.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Takes a token from the key's bucket under the rule.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryConsume(String key, RateLimitRule rule);
+}
@@ -0,0 +1,112 @@
+package za.co.simplitate.hotelbooking.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.security.AuthUser;
+import za.co.simplitate.hotelbooking.security.JwtPrincipal;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the first {@link RateLimitRule} whose prefix matches the request path, with one bucket per
+ * user for authenticated requests and per client IP otherwise. Runs after {@code AuthFilter} so it can
+ * tell the two apart. The client IP is the TCP peer unless {@code server.forward-headers-strategy} says to
+ * trust the proxy's forwarded headers, see application.properties.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TOO_MANY_REQUESTS = "Too many requests, please try again later";
+
+    private final RateLimitBackend backend;
+    private final List<RateLimitRule> rules;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public RateLimitFilter(RateLimitBackend backend,
+                           List<RateLimitRule> rules,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${rate-limit.enabled:true}") boolean enabled) {
+        this.backend = backend;
+        this.rules = rules;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitRule rule = match(request.getRequestURI());
+        if (rule != null) {
+            long waitNanos = backend.tryConsume(rule.name() + ":" + clientKey(request), rule);
+            if (waitNanos > 0) {
+                reject(response, rule, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimitRule match(String path) {
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            return "user:" + jwtPrincipal.id();
+        }
+        if (principal instanceof AuthUser authUser) {
+            return "user:" + authUser.getUser().getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, RateLimitRule rule, long waitNanos) throws IOException {
+        meterRegistry.counter("rate-limit.rejected", "rule", rule.name()).increment();
+        // whole seconds, rounded up so a client that waits exactly that long finds a token
+        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1);
+        Response tooManyRequests = Response.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value()) // 429
+                .message(TOO_MANY_REQUESTS)
+                .build();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(tooManyRequests));
+    }
+}
@@ -0,0 +1,26 @@
+package za.co.simplitate.hotelbooking.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket for the requests under {@code pathPrefix}: each client may burst up to {@code capacity}
+ * requests, and tokens come back at {@code refillPerMinute}. A prefix ending in {@code /} also covers the
+ * collection path itself, so {@code /api/bookings/} limits {@code POST /api/bookings} too.
+ */
+public record RateLimitRule(
+        String name,
+        String pathPrefix,
+        int capacity,
+        int refillPerMinute
+) {
+
+    public boolean matches(String path) {
+        return path.startsWith(pathPrefix)
+                || (pathPrefix.endsWith("/") && path.equals(pathPrefix.substring(0, pathPrefix.length() - 1)));
+    }
+
+    /** Time for one token to come back. */
+    public long intervalNanos() {
+        return TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+    }
+}
@@ -0,0 +1,80 @@
+package za.co.simplitate.hotelbooking.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets in Redis, shared by every node. The same algorithm as {@link LocalRateLimitBackend} runs
+ * as one Lua script on Redis's clock, so concurrent requests from different nodes cannot both take the
+ * last token. If Redis cannot be reached, requests are limited by this node's buckets instead, and Redis
+ * is not tried again for {@code retryAfterMillis} so requests don't each wait out the client timeout.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "rate-limit.backend", havingValue = "redis")
+@Slf4j
+public class RedisRateLimitBackend implements RateLimitBackend {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    // times in microseconds; returns 0 when a token was taken, else the wait until one is available
+    private static final RedisScript<Long> CONSUME = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local interval = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local full_at = tonumber(redis.call('GET', KEYS[1]) or now)
+            local next = math.max(full_at, now) + interval
+            local wait = next - now - burst
+            if wait > 0 then
+                return wait
+            end
+            redis.call('SET', KEYS[1], string.format('%d', next), 'PX', math.ceil((next - now) / 1000))
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalRateLimitBackend fallback;
+    private final long retryAfterNanos;
+
+    /** {@link System#nanoTime()} before which Redis is skipped, after it last failed. */
+    private volatile long skipUntil;
+    private volatile boolean skipping;
+
+    public RedisRateLimitBackend(StringRedisTemplate redisTemplate, LocalRateLimitBackend fallback,
+                                 @Value("${rate-limit.redis.retry-after-ms:5000}") long retryAfterMillis) {
+        this.redisTemplate = redisTemplate;
+        this.fallback = fallback;
+        this.retryAfterNanos = TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+    }
+
+    @Override
+    public long tryConsume(String key, RateLimitRule rule) {
+        if (skipping && skipUntil - System.nanoTime() > 0) {
+            return fallback.tryConsume(key, rule);
+        }
+        long interval = TimeUnit.NANOSECONDS.toMicros(rule.intervalNanos());
+        try {
+            Long wait = redisTemplate.execute(CONSUME, List.of(KEY_PREFIX + key), Long.toString(interval),
+                    Long.toString(interval * rule.capacity()));
+            skipping = false;
+            return wait != null ? TimeUnit.MICROSECONDS.toNanos(wait) : 0;
+        } catch (DataAccessException e) {
+            // requests until then go straight to the fallback: one timeout and one log line per window
+            skipUntil = System.nanoTime() + retryAfterNanos;
+            skipping = true;
+            log.warn("tryConsume: Redis unavailable, limiting on this node for {} ms: {}",
+                    TimeUnit.NANOSECONDS.toMillis(retryAfterNanos), e.getMessage());
+            return fallback.tryConsume(key, rule);
+        }
+    }
+}
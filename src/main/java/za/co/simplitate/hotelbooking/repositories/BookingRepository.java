@@ -1,22 +1,53 @@
 package za.co.simplitate.hotelbooking.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import za.co.simplitate.hotelbooking.dtos.BookingTO;
+import za.co.simplitate.hotelbooking.dtos.RoomOccupancy;
 import za.co.simplitate.hotelbooking.entities.Booking;
 import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.enums.BookingStatus;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // user and room are lazy; each lookup fetches, in the same select, only what its caller reads
+
+    /** Booking history, mapped with user and room. */
+    @EntityGraph("Booking.withUserAndRoom")
     List<Booking> findBookingsByUser(User user);
 
+    /** Booking detail, mapped with user and room. */
+    @EntityGraph("Booking.withUserAndRoom")
     Optional<Booking> findBookingByBookingReference(String bookingReference);
 
+    /** Payment checks and updates, which only read the booking's user. */
+    @EntityGraph("Booking.withUser")
+    Optional<Booking> findForPaymentByBookingReference(String bookingReference);
+
+    /** Status updates, which refresh the room's availability and rates. */
+    @EntityGraph("Booking.withRoom")
+    Optional<Booking> findWithRoomById(Long id);
+
     boolean isRoomAvailable(Long roomId, LocalDate checkInDate, LocalDate checkOutDate);
 
+    /** Admin list, a DTO projection that never touches user or room. */
+    List<BookingTO> findBookingPage(Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookingTO> streamBookings(LocalDate fromDate, LocalDate toDate, BookingStatus bookingStatus);
+
+    List<RoomOccupancy> findActiveStays(LocalDate fromDate);
 
+    List<RoomOccupancy> findActiveStaysByRoom(Long roomId, LocalDate fromDate);
 }
@@ -0,0 +1,34 @@
+package za.co.simplitate.hotelbooking.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.simplitate.hotelbooking.entities.IdempotencyRecord;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /** Inserts the record unless one with the id exists; 0 means another request holds the key. */
+    @Transactional
+    @Modifying
+    int claim(String id, String requestHash, Instant createdAt, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    int complete(String id, String response);
+
+    /**
+     * Deletes the record if it expired. A record without a response is kept until then too: its request may
+     * have been applied without storing the response, so the key must not run again.
+     */
+    @Transactional
+    @Modifying
+    int release(String id, Instant now);
+
+    @Transactional
+    @Modifying
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,9 @@
+package za.co.simplitate.hotelbooking.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import za.co.simplitate.hotelbooking.entities.RateRule;
+
+@Repository
+public interface RateRuleRepository extends JpaRepository<RateRule, Long> {
+}
@@ -0,0 +1,35 @@
+package za.co.simplitate.hotelbooking.repositories;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.simplitate.hotelbooking.entities.RefreshToken;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @EntityGraph("RefreshToken.withUser")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /** Claims the token for one refresh; 0 means another request already used it. */
+    @Transactional
+    @Modifying
+    int markUsed(Long id, Instant usedAt);
+
+    @Transactional
+    @Modifying
+    int deleteFamily(String familyId);
+
+    @Transactional
+    @Modifying
+    int deleteByUserId(Long userId);
+
+    @Transactional
+    @Modifying
+    int deleteExpired(Instant now);
+}
@@ -1,21 +1,30 @@
 package za.co.simplitate.hotelbooking.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import za.co.simplitate.hotelbooking.entities.Room;
 import za.co.simplitate.hotelbooking.enums.RoomType;
-
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RoomsRepository extends JpaRepository<Room, Long> {
 
-    //TODO not sure what to do with the dates
-    List<Room> findAvailableRooms(RoomType roomType);
-//    List<Room> findRoomByRoomType (LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType);
+    List<Room> findAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType,
+                                  Integer minCapacity);
 
-    List<Room> findByDescription(String searchParam);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Room> findRoomForUpdate(Long roomId);
 
     List<Room> findRoomByRoomType(RoomType roomType);
+
+    /** Records resized variants unless the room's image was replaced while they were being made. */
+    @Transactional
+    @Modifying
+    int updateImageVariants(Long roomId, String imageUrl, String thumbnailUrl, String mediumUrl, String fullUrl);
 }
@@ -1,5 +1,6 @@
 package za.co.simplitate.hotelbooking.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +17,8 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
 
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static za.co.simplitate.hotelbooking.Const.BEARER;
@@ -28,6 +32,9 @@ public class AuthFilter extends OncePerRequestFilter {
 
     private final CustomUserDetailsService customUserDetailsService;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenRevocations tokenRevocations;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,13 +43,12 @@ public class AuthFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String token = getTokenFromRequest(request);
 
-        if (token != null) {
-            String email = jwtUtils.getUsernameFromToken(token);
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
-
-            if(StringUtils.hasText(email) && jwtUtils.isTokenValid(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+        TokenClaims claims = token != null ? verify(token) : null;
+        if (claims != null) {
+            UsernamePasswordAuthenticationToken authenticationToken = claims.userId() != null && claims.role() != null
+                    ? fromClaims(claims)
+                    : fromUserDetails(token, claims);
+            if (authenticationToken != null) {
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
@@ -55,6 +61,51 @@ public class AuthFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Signature, expiry and revocation, all checked without the database. Only tokens that can be revoked
+     * are accepted: they must carry an id and be no older than the access token lifetime, which turns away
+     * the long-lived tokens issued before access tokens were short-lived. An invalid token leaves the request
+     * unauthenticated, so protected endpoints answer 401 and the client can refresh.
+     */
+    private TokenClaims verify(String token) {
+        try {
+            TokenClaims claims = jwtUtils.parseToken(token);
+            if (claims.tokenId() == null || claims.issuedAt() == null
+                    || claims.issuedAt().plus(jwtUtils.getAccessTokenTtl()).isBefore(Instant.now())) {
+                log.debug("verify: token without an id or issued too long ago");
+                return null;
+            }
+            if (tokenRevocations.isRevoked(claims)) {
+                log.debug("verify: token {} has been revoked", claims.tokenId());
+                return null;
+            }
+            return claims;
+        } catch (JwtException e) {
+            log.debug("verify: rejected token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static UsernamePasswordAuthenticationToken fromClaims(TokenClaims claims) {
+        JwtPrincipal principal = new JwtPrincipal(claims.userId(), claims.subject(), claims.role());
+        return new UsernamePasswordAuthenticationToken(principal, null,
+                List.of(new SimpleGrantedAuthority(claims.role().name())));
+    }
+
+    /** Tokens of a user without a role, authorized from the user as loaded. */
+    private UsernamePasswordAuthenticationToken fromUserDetails(String token, TokenClaims claims) {
+        UserDetails userDetails = principalCache.get(token);
+        if (userDetails == null) {
+            String email = claims.subject();
+            if (!StringUtils.hasText(email)) {
+                return null;
+            }
+            userDetails = customUserDetailsService.loadUserByUsername(email);
+            principalCache.put(token, userDetails, claims.expiresAt());
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String tokenWithBearer = request.getHeader(AUTHORIZATION);
         if (tokenWithBearer != null && tokenWithBearer.startsWith(BEARER)) {
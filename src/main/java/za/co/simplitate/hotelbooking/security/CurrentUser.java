@@ -0,0 +1,69 @@
+package za.co.simplitate.hotelbooking.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.exceptions.NotFoundException;
+import za.co.simplitate.hotelbooking.repositories.UserRepository;
+
+/**
+ * The authenticated user of the current request. Id, email and role come from the token without a query;
+ * {@link #reference()} stands in for the entity where only its id is used, and {@link #get()} loads the
+ * entity on first use and reuses it for the rest of the request.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+@Slf4j
+public class CurrentUser {
+
+    public static final String USER_ID_NOT_FOUND = "User not found by id=%d!!";
+
+    private final UserRepository userRepository;
+
+    private User user;
+
+    public JwtPrincipal principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            return jwtPrincipal;
+        }
+        if (principal instanceof AuthUser authUser) {
+            User authenticated = authUser.getUser();
+            return new JwtPrincipal(authenticated.getId(), authenticated.getEmail(), authenticated.getRole());
+        }
+        throw new NotFoundException("No authenticated user");
+    }
+
+    /** Unloaded entity for associations and query parameters; reading anything but its id loads it. */
+    public User reference() {
+        if (user != null) {
+            return user;
+        }
+        return userRepository.getReferenceById(principal().id());
+    }
+
+    public User get() {
+        if (user == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof AuthUser authUser) {
+                // authenticated from a token without user claims, the entity is already loaded
+                user = authUser.getUser();
+            } else {
+                Long userId = principal().id();
+                user = userRepository.findById(userId)
+                        .orElseThrow(() -> {
+                            var message = String.format(USER_ID_NOT_FOUND, userId);
+                            log.warn(message);
+                            return new NotFoundException(message);
+                        });
+            }
+        }
+        return user;
+    }
+}
@@ -1,64 +1,102 @@
 package za.co.simplitate.hotelbooking.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.enums.UserRole;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
 @Slf4j
 public class JWTUtils {
 
-    private static final Long EXPIRATION_TIME_MILLISECONDS = 6L * 30 * 24 * 60 * 60 * 1000;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
 
     private SecretKey secretKey;
 
+    // immutable and thread-safe, built once instead of per token
+    private JwtParser jwtParser;
+
     @Value("${secretJwtString}")
     private String secretJwtString;
 
+    // access tokens are checked from their claims alone, so they are short-lived and renewed by refresh tokens
+    @Value("${security.jwt.access-token-ttl-seconds:900}")
+    private long accessTokenTtlSeconds = 900;
+
     @PostConstruct
     public void init() {
         byte[] keyByte = secretJwtString.getBytes(StandardCharsets.UTF_8);
         secretKey = new SecretKeySpec(keyByte, "HmacSHA256");
+        jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
     }
 
-    public String generateToken(String email) {
+    /**
+     * Access token for the user, carrying their id and role so requests are authorized from the claims
+     * alone. A role change takes effect when the token is next refreshed.
+     */
+    public String generateToken(User user) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .subject(email)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME_MILLISECONDS))
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole() != null ? user.getRole().name() : null)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + accessTokenTtlSeconds * 1000))
                 .signWith(secretKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return extractClaims(token, Claims::getSubject);
+    public Duration getAccessTokenTtl() {
+        return Duration.ofSeconds(accessTokenTtlSeconds);
     }
 
-    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload());
+    /** Access token lifetime as reported to clients on login and refresh. */
+    public String getExpirationTime() {
+        return accessTokenTtlSeconds + " seconds";
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    /**
+     * Verifies the token signature and expiry once and returns its claims.
+     *
+     * @param token compact signed JWT
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public TokenClaims parseToken(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new TokenClaims(claims.getId(), claims.getSubject(), claims.get(USER_ID_CLAIM, Long.class),
+                role != null ? UserRole.valueOf(role) : null, toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token, Claims::getExpiration).before(new Date());
+    public String getUsernameFromToken(String token) {
+        return parseToken(token).subject();
     }
 
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        TokenClaims claims = parseToken(token);
+        return claims.subject().equals(userDetails.getUsername()) && !claims.isExpired();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
 }
@@ -0,0 +1,21 @@
+package za.co.simplitate.hotelbooking.security;
+
+import za.co.simplitate.hotelbooking.enums.UserRole;
+
+import java.security.Principal;
+
+/**
+ * The authenticated user as described by the access token's claims, so {@code Authentication.getName()}
+ * is still the email.
+ */
+public record JwtPrincipal(
+        Long id,
+        String email,
+        UserRole role
+) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
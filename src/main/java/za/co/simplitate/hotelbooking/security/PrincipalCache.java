@@ -0,0 +1,84 @@
+package za.co.simplitate.hotelbooking.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of authenticated principals keyed by bearer token, so a token is verified and its user
+ * loaded once per TTL instead of on every request. Entries expire at the earlier of the TTL and the
+ * token's own expiry, and are evicted when the user's account changes.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+
+    private final int maxEntries;
+
+    private record CachedPrincipal(UserDetails userDetails, long expiresAtMillis) {
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    public UserDetails get(String token) {
+        CachedPrincipal cached = principals.get(token);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            principals.remove(token, cached);
+            return null;
+        }
+        return cached.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, Instant tokenExpiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = tokenExpiration != null
+                ? Math.min(now + ttlMillis, tokenExpiration.toEpochMilli())
+                : now + ttlMillis;
+        if (principals.size() >= maxEntries) {
+            makeRoom(now);
+        }
+        principals.put(token, new CachedPrincipal(userDetails, expiresAt));
+    }
+
+    public void evictUser(String username) {
+        principals.values().removeIf(cached -> cached.userDetails().getUsername().equals(username));
+    }
+
+    @Scheduled(fixedDelayString = "${security.principal-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        principals.values().removeIf(cached -> cached.isExpired(now));
+    }
+
+    private void makeRoom(long now) {
+        principals.values().removeIf(cached -> cached.isExpired(now));
+        int excess = principals.size() - (maxEntries - maxEntries / 10);
+        var tokens = principals.keySet().iterator();
+        while (excess-- > 0 && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+        }
+        log.debug("makeRoom: principal cache trimmed to {} entries", principals.size());
+    }
+}
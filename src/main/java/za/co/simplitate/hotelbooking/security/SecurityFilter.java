@@ -1,8 +1,11 @@
 package za.co.simplitate.hotelbooking.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -11,12 +14,17 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import za.co.simplitate.hotelbooking.exceptions.CustomAccessDenialHandler;
 import za.co.simplitate.hotelbooking.exceptions.CustomAuthenticationEntryPoint;
+import za.co.simplitate.hotelbooking.ratelimit.RateLimitFilter;
+
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -26,6 +34,8 @@ public class SecurityFilter {
 
     private final AuthFilter authFilter;
 
+    private final RateLimitFilter rateLimitFilter;
+
     private final CustomAccessDenialHandler customAccessDenialHandler;
 
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
@@ -36,19 +46,37 @@ public class SecurityFilter {
                 .cors(Customizer.withDefaults())
                 .exceptionHandling(ex -> ex.accessDeniedHandler(customAccessDenialHandler)
                         .authenticationEntryPoint(customAuthenticationEntryPoint))
-                .authorizeHttpRequests(req -> req.requestMatchers("/api/auth/**",
+                .authorizeHttpRequests(req -> req.requestMatchers(HttpMethod.POST, "/api/bookings").authenticated()
+                                .requestMatchers("/api/auth/**",
                                                                 "/api/rooms/**",
-                                                                "/api/bookings/**").permitAll()
+                                                                "/api/bookings/**",
+                                                                "/api/images/**").permitAll()
                                                                     .anyRequest().authenticated())
                 .sessionManagement(man -> man.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, AuthFilter.class);
 
         return httpSecurity.build();
     }
 
+    private static final String BCRYPT = "bcrypt";
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength,
+                                           @Qualifier("passwordHashExecutor") AsyncTaskExecutor passwordHashExecutor) {
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder(strength), passwordHashExecutor);
+    }
+
+    /**
+     * New hashes are {@code {bcrypt}}-prefixed at the given cost. Hashes stored before the prefix was
+     * introduced still match, and {@link PasswordEncoder#upgradeEncoding} reports them, and any hash made at
+     * a lower cost, so a successful login can re-hash the password.
+     */
+    static PasswordEncoder delegatingPasswordEncoder(int strength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
     @Bean
@@ -0,0 +1,19 @@
+package za.co.simplitate.hotelbooking.security;
+
+import za.co.simplitate.hotelbooking.enums.UserRole;
+
+import java.time.Instant;
+
+public record TokenClaims(
+        String tokenId,
+        String subject,
+        Long userId,
+        UserRole role,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,71 @@
+package za.co.simplitate.hotelbooking.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before they expire, checked on every authenticated request without touching the
+ * database. Revoked token ids are grouped by the minute they expire in, so a check looks in one small set
+ * and a whole group is dropped once its tokens have expired anyway. Revoking a subject rejects every token
+ * issued to it up to that moment, for when the token ids are not known, e.g. a deleted account.
+ */
+@Component
+@Slf4j
+public class TokenRevocations {
+
+    private static final long BUCKET_SECONDS = 60;
+
+    private final Map<Long, Set<String>> revokedIds = new ConcurrentHashMap<>();
+
+    private final Map<String, Instant> revokedSubjects = new ConcurrentHashMap<>();
+
+    private final JWTUtils jwtUtils;
+
+    public TokenRevocations(JWTUtils jwtUtils) {
+        this.jwtUtils = jwtUtils;
+    }
+
+    public void revoke(TokenClaims claims) {
+        if (claims.tokenId() == null || claims.expiresAt() == null || claims.isExpired()) {
+            return;
+        }
+        revokedIds.computeIfAbsent(bucket(claims.expiresAt()), bucket -> ConcurrentHashMap.newKeySet())
+                .add(claims.tokenId());
+    }
+
+    public void revokeSubject(String subject) {
+        revokedSubjects.put(subject, Instant.now());
+    }
+
+    public boolean isRevoked(TokenClaims claims) {
+        if (claims.expiresAt() != null) {
+            Set<String> ids = revokedIds.get(bucket(claims.expiresAt()));
+            if (ids != null && ids.contains(claims.tokenId())) {
+                return true;
+            }
+        }
+        Instant revokedAt = revokedSubjects.get(claims.subject());
+        return revokedAt != null && (claims.issuedAt() == null || !claims.issuedAt().isAfter(revokedAt));
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocations.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        long current = bucket(now);
+        revokedIds.keySet().removeIf(bucket -> bucket < current);
+        // every token issued before this has expired, so subject revocations older than it are moot
+        Instant oldestLiveIssue = now.minus(jwtUtils.getAccessTokenTtl());
+        revokedSubjects.values().removeIf(revokedAt -> revokedAt.isBefore(oldestLiveIssue));
+        log.debug("purgeExpired: {} id buckets, {} subjects", revokedIds.size(), revokedSubjects.size());
+    }
+
+    private static long bucket(Instant expiresAt) {
+        return expiresAt.getEpochSecond() / BUCKET_SECONDS;
+    }
+}
@@ -1,46 +1,87 @@
 package za.co.simplitate.hotelbooking.services;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import za.co.simplitate.hotelbooking.entities.BookingReference;
-import za.co.simplitate.hotelbooking.repositories.BookingReferenceRepository;
 
-import static java.lang.Math.random;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+/**
+ * Generates 10-character base62 booking references without touching the database. Each reference packs
+ * 59 bits: 32 bits of seconds since {@link #EPOCH}, a 10-bit node id and a 17-bit per-second sequence.
+ * The time and sequence advance together in one {@link AtomicLong}, so a node never issues the same value
+ * twice; when a second's sequence runs out the clock borrows from the next second rather than blocking.
+ * Distinct node ids ({@code booking.reference.node-id}) keep nodes apart. The id is required: a node without
+ * one fails at startup rather than guessing, since two guessed ids collide often enough to issue duplicate
+ * references (the dev profile sets it to 0 for a single local instance). The unique index on
+ * {@code bookings.booking_reference} is the safety net. The packed value goes through a bijective scramble
+ * so consecutive references don't look sequential.
+ */
 @Service
-@RequiredArgsConstructor
 public class BookingCodeGenerator {
 
-    private final BookingReferenceRepository bookingReferenceRepository;
+    static final int REFERENCE_LENGTH = 10;
 
-    public String generateBookingReference() {
-        String bookingRef;
-        do {
-            bookingRef = generateRandonAlphaNumericCode(10);
-        } while(isBookingRefExists(bookingRef));
+    private static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 17;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long VALUE_MASK = (1L << 59) - 1;
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private final long nodeId;
+    private final LongSupplier epochSeconds;
+    /** Seconds since EPOCH in the high bits, sequence in the low SEQUENCE_BITS. */
+    private final AtomicLong clock = new AtomicLong();
+
+    public BookingCodeGenerator(@Value("${booking.reference.node-id:-1}") long nodeId) {
+        this(nodeId, () -> Instant.now().getEpochSecond());
+    }
 
-        persistBookingReference(bookingRef);
-        return bookingRef;
+    BookingCodeGenerator(long nodeId, LongSupplier epochSeconds) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("booking.reference.node-id is required and must be between 0 and "
+                    + MAX_NODE_ID + ", unique per running instance (BOOKING_NODE_ID)");
+        }
+        this.nodeId = nodeId;
+        this.epochSeconds = epochSeconds;
     }
 
-    private boolean isBookingRefExists(String bookingRef) {
-        return bookingReferenceRepository.findBookingReferenceByReferenceNumber(bookingRef).isPresent();
+    public String generateBookingReference() {
+        return encode(scramble(nextValue()));
+    }
+
+    long nextValue() {
+        long now = (epochSeconds.getAsLong() - EPOCH) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = clock.get();
+            next = Math.max(previous + 1, now);
+        } while (!clock.compareAndSet(previous, next));
+        long seconds = next >>> SEQUENCE_BITS;
+        return (seconds << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
     }
 
-    private void persistBookingReference(String ref) {
-        BookingReference bookingRefEntity = BookingReference.builder()
-                .referenceNumber(ref)
-                .build();
-        bookingReferenceRepository.save(bookingRefEntity);
+    /** Invertible mix over 59 bits: odd multipliers and xor-shifts are both bijections mod 2^59. */
+    static long scramble(long value) {
+        long x = value & VALUE_MASK;
+        x = (x * 0x5DEECE66DL) & VALUE_MASK;
+        x ^= x >>> 29;
+        x = (x * 0x2545F4914F6CDD1DL) & VALUE_MASK;
+        x ^= x >>> 31;
+        return x;
     }
 
-    private String generateRandonAlphaNumericCode(int length) {
-        String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        StringBuilder result = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            int randomIndex = (int) (random() * characters.length());
-            result.append(characters.charAt(randomIndex));
+    static String encode(long value) {
+        char[] reference = new char[REFERENCE_LENGTH];
+        for (int i = REFERENCE_LENGTH - 1; i >= 0; i--) {
+            reference[i] = ALPHABET[(int) (value % ALPHABET.length)];
+            value /= ALPHABET.length;
         }
-        return result.toString();
+        return new String(reference);
     }
 }
@@ -2,11 +2,16 @@ package za.co.simplitate.hotelbooking.services;
 
 import za.co.simplitate.hotelbooking.dtos.BookingTO;
 import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.enums.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
-    Response getAllBookings();
+    Response getAllBookings(Long afterId, int limit);
     Response createBooking(BookingTO bookingTO);
     Response findBookingByReference(String ref);
     Response updateBooking(BookingTO bookingTO);
+    void exportBookings(LocalDate fromDate, LocalDate toDate, BookingStatus bookingStatus, Consumer<BookingTO> sink);
 }
@@ -0,0 +1,15 @@
+package za.co.simplitate.hotelbooking.services;
+
+import za.co.simplitate.hotelbooking.dtos.Response;
+
+import java.util.function.Function;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs {@code action} once per user, {@code scope} and {@code idempotencyKey}, and answers retries with
+     * the stored response. Without a key the action just runs. The action is given a key derived from all
+     * three, for passing on to an idempotent downstream API, or null when the request had no key.
+     */
+    Response execute(String scope, String idempotencyKey, Object request, Function<String, Response> action);
+}
@@ -0,0 +1,230 @@
+package za.co.simplitate.hotelbooking.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.entities.RateRule;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.repositories.RateRuleRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static za.co.simplitate.hotelbooking.util.TransactionUtil.afterCommit;
+
+/**
+ * {@link RateRule}s compiled into a nightly price multiplier per {@link RoomType} over the same two year
+ * horizon as {@link RoomAvailabilityIndex}, stored with running totals so pricing a stay is two array reads
+ * whatever its length. Multipliers are fixed point with six decimals, so totals are exact.
+ * <p>
+ * A rule change recompiles only the room types and dates the old and new versions of the rule cover; a
+ * booking change recompiles the nights of its stay when occupancy rules apply to the room's type, and rooms
+ * joining or leaving a type ({@link RoomCatalogue.RoomTypesChanged}) recompile that type's horizon. Stays
+ * outside the horizon are priced by evaluating the rules night by night, with occupancy rules ignored.
+ * Reads are lock free, writes replace a type's calendar copy-on-write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateCalendar {
+
+    static final int HORIZON_DAYS = 2 * 366;
+    private static final int SCALE = 6;
+
+    private final RateRuleRepository rateRuleRepository;
+    private final RoomCatalogue roomCatalogue;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+
+    private volatile Snapshot snapshot;
+
+    /** {@code prefix[d]} is the sum of the multipliers of the nights before day {@code d}. */
+    private record Calendar(long[] daily, long[] prefix) {
+
+        static Calendar of(long[] daily) {
+            long[] prefix = new long[daily.length + 1];
+            for (int day = 0; day < daily.length; day++) {
+                prefix[day + 1] = prefix[day] + daily[day];
+            }
+            return new Calendar(daily, prefix);
+        }
+    }
+
+    private record Snapshot(LocalDate origin, List<RateRule> rules, Map<RoomType, Calendar> calendars) {
+
+        int dayIndex(LocalDate date) {
+            return (int) ChronoUnit.DAYS.between(origin, date);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 10 0 * * *")
+    public synchronized void rebuild() {
+        LocalDate origin = LocalDate.now();
+        List<RateRule> rules = List.copyOf(rateRuleRepository.findAll());
+        Map<RoomType, Calendar> calendars = new EnumMap<>(RoomType.class);
+        for (RoomType roomType : RoomType.values()) {
+            calendars.put(roomType, Calendar.of(compile(rules, roomType, origin, null, 0, HORIZON_DAYS - 1)));
+        }
+        snapshot = new Snapshot(origin, rules, calendars);
+        log.info("rebuild: compiled {} rate rules from {}", rules.size(), origin);
+    }
+
+    /**
+     * @return the price of the nights from {@code checkInDate} up to, not including, {@code checkOutDate}
+     */
+    public BigDecimal price(RoomType roomType, BigDecimal pricePerNight, LocalDate checkInDate,
+                            LocalDate checkOutDate) {
+        Snapshot current = snapshot;
+        long units;
+        if (current != null && roomType != null && !checkInDate.isBefore(current.origin())
+                && current.dayIndex(checkOutDate) <= HORIZON_DAYS) {
+            long[] prefix = current.calendars().get(roomType).prefix();
+            units = prefix[current.dayIndex(checkOutDate)] - prefix[current.dayIndex(checkInDate)];
+        } else {
+            List<RateRule> rules = applicable(current != null ? current.rules() : rateRuleRepository.findAll(),
+                    roomType);
+            units = 0;
+            for (LocalDate night = checkInDate; night.isBefore(checkOutDate); night = night.plusDays(1)) {
+                units += multiplier(rules, night, 0, 0);
+            }
+        }
+        return pricePerNight.multiply(BigDecimal.valueOf(units, SCALE)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Recompiles what a created, updated ({@code previous} and {@code saved}) or deleted ({@code saved} null)
+     * rule covers, once the change commits.
+     */
+    public void onRuleChanged(RateRule previous, RateRule saved) {
+        afterCommit(() -> recompileRule(previous, saved));
+    }
+
+    public void onOccupancyChanged(RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate) {
+        afterCommit(() -> recompileOccupancy(roomType, checkInDate, checkOutDate));
+    }
+
+    @EventListener
+    public void onRoomTypesChanged(RoomCatalogue.RoomTypesChanged event) {
+        event.roomTypes().forEach(this::recompileRoomType);
+    }
+
+    private synchronized void recompileRule(RateRule previous, RateRule saved) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        Long ruleId = saved != null ? saved.getId() : previous.getId();
+        List<RateRule> rules = new ArrayList<>(current.rules());
+        rules.removeIf(rule -> rule.getId().equals(ruleId));
+        if (saved != null) {
+            rules.add(saved);
+        }
+        Map<RoomType, Calendar> calendars = new EnumMap<>(current.calendars());
+        for (RateRule rule : new RateRule[]{previous, saved}) {
+            if (rule == null) {
+                continue;
+            }
+            int fromDay = rule.getStartDate() != null ? Math.max(current.dayIndex(rule.getStartDate()), 0) : 0;
+            int toDay = rule.getEndDate() != null
+                    ? Math.min(current.dayIndex(rule.getEndDate()), HORIZON_DAYS - 1)
+                    : HORIZON_DAYS - 1;
+            if (fromDay > toDay) {
+                continue;
+            }
+            for (RoomType roomType : rule.getRoomType() != null ? EnumSet.of(rule.getRoomType())
+                    : EnumSet.allOf(RoomType.class)) {
+                long[] daily = compile(rules, roomType, current.origin(), calendars.get(roomType).daily(),
+                        fromDay, toDay);
+                calendars.put(roomType, Calendar.of(daily));
+            }
+        }
+        snapshot = new Snapshot(current.origin(), List.copyOf(rules), calendars);
+        log.info("recompileRule: rule {} applied", ruleId);
+    }
+
+    private synchronized void recompileOccupancy(RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate) {
+        Snapshot current = snapshot;
+        if (current == null || roomType == null || !hasOccupancyRules(current.rules(), roomType)) {
+            return;
+        }
+        int fromDay = Math.max(current.dayIndex(checkInDate), 0);
+        int toDay = Math.min(current.dayIndex(checkOutDate), HORIZON_DAYS - 1);
+        if (fromDay > toDay) {
+            return;
+        }
+        recompileDays(current, roomType, fromDay, toDay);
+    }
+
+    /** The type's room count is the denominator of every occupancy percentage, so all its days change. */
+    private synchronized void recompileRoomType(RoomType roomType) {
+        Snapshot current = snapshot;
+        if (current == null || !hasOccupancyRules(current.rules(), roomType)) {
+            return;
+        }
+        recompileDays(current, roomType, 0, HORIZON_DAYS - 1);
+        log.info("recompileRoomType: occupancy rules for {} recompiled", roomType);
+    }
+
+    private void recompileDays(Snapshot current, RoomType roomType, int fromDay, int toDay) {
+        Map<RoomType, Calendar> calendars = new EnumMap<>(current.calendars());
+        long[] daily = compile(current.rules(), roomType, current.origin(), calendars.get(roomType).daily(),
+                fromDay, toDay);
+        calendars.put(roomType, Calendar.of(daily));
+        snapshot = new Snapshot(current.origin(), current.rules(), calendars);
+    }
+
+    /** Copies {@code previous} (or starts from all ones) and recomputes days {@code fromDay..toDay}. */
+    private long[] compile(List<RateRule> rules, RoomType roomType, LocalDate origin, long[] previous,
+                           int fromDay, int toDay) {
+        long[] daily = previous != null ? previous.clone() : new long[HORIZON_DAYS];
+        List<RateRule> applicable = applicable(rules, roomType);
+        int rooms = 0;
+        int[] occupied = null;
+        if (applicable.stream().anyMatch(rule -> rule.getMinOccupancyPercent() != null)) {
+            List<Long> roomIds = roomCatalogue.findByType(roomType).stream().map(RoomTO::id).toList();
+            rooms = roomIds.size();
+            occupied = roomAvailabilityIndex.occupiedCounts(roomIds, origin.plusDays(fromDay), origin.plusDays(toDay));
+        }
+        for (int day = fromDay; day <= toDay; day++) {
+            daily[day] = multiplier(applicable, origin.plusDays(day), occupied != null ? occupied[day - fromDay] : 0,
+                    rooms);
+        }
+        return daily;
+    }
+
+    private static boolean hasOccupancyRules(List<RateRule> rules, RoomType roomType) {
+        return applicable(rules, roomType).stream().anyMatch(rule -> rule.getMinOccupancyPercent() != null);
+    }
+
+    private static List<RateRule> applicable(List<RateRule> rules, RoomType roomType) {
+        return rules.stream()
+                .filter(rule -> rule.getRoomType() == null || rule.getRoomType() == roomType)
+                .toList();
+    }
+
+    private static long multiplier(List<RateRule> rules, LocalDate night, int occupied, int rooms) {
+        BigDecimal multiplier = BigDecimal.ONE;
+        for (RateRule rule : rules) {
+            if (matches(rule, night, occupied, rooms)) {
+                multiplier = multiplier.multiply(rule.getMultiplier());
+            }
+        }
+        return multiplier.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static boolean matches(RateRule rule, LocalDate night, int occupied, int rooms) {
+        return (rule.getStartDate() == null || !night.isBefore(rule.getStartDate()))
+                && (rule.getEndDate() == null || !night.isAfter(rule.getEndDate()))
+                && (rule.getDaysOfWeek() == null || rule.getDaysOfWeek().isEmpty()
+                        || rule.getDaysOfWeek().contains(night.getDayOfWeek()))
+                && (rule.getMinOccupancyPercent() == null
+                        || (rooms > 0 && occupied * 100L >= (long) rule.getMinOccupancyPercent() * rooms));
+    }
+}
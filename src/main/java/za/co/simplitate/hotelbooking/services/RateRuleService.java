@@ -0,0 +1,12 @@
+package za.co.simplitate.hotelbooking.services;
+
+import za.co.simplitate.hotelbooking.dtos.RateRuleTO;
+import za.co.simplitate.hotelbooking.dtos.Response;
+
+public interface RateRuleService {
+
+    Response getAllRateRules();
+    Response addRateRule(RateRuleTO rateRuleTO);
+    Response updateRateRule(RateRuleTO rateRuleTO);
+    Response deleteRateRule(Long rateRuleId);
+}
@@ -0,0 +1,172 @@
+package za.co.simplitate.hotelbooking.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import za.co.simplitate.hotelbooking.dtos.RoomOccupancy;
+import za.co.simplitate.hotelbooking.repositories.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static za.co.simplitate.hotelbooking.util.TransactionUtil.afterCommit;
+
+/**
+ * In-memory day-by-day occupancy of every room over a rolling two year horizon, one bit per day.
+ * A day is occupied when an active booking (BOOKED or CHECKED_IN) spans it, check-in and check-out
+ * days inclusive, which matches the overlap rule of {@code Booking.isRoomAvailable}.
+ * Reads are lock free, writes replace a room's words copy-on-write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAvailabilityIndex {
+
+    private static final int HORIZON_DAYS = 2 * 366;
+    private static final int WORDS = (HORIZON_DAYS + 63) >>> 6;
+    private static final long[] EMPTY = new long[WORDS];
+
+    private final BookingRepository bookingRepository;
+
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(LocalDate origin, Map<Long, long[]> occupancy) {
+
+        int dayIndex(LocalDate date) {
+            return (int) ChronoUnit.DAYS.between(origin, date);
+        }
+    }
+
+    // before RateCalendar, whose occupancy rules read this index
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(cron = "0 5 0 * * *")
+    public synchronized void rebuild() {
+        LocalDate origin = LocalDate.now();
+        List<RoomOccupancy> stays = bookingRepository.findActiveStays(origin);
+        Snapshot rebuilt = new Snapshot(origin, new ConcurrentHashMap<>());
+        for (RoomOccupancy stay : stays) {
+            long[] words = rebuilt.occupancy().computeIfAbsent(stay.roomId(), id -> new long[WORDS]);
+            mark(rebuilt, words, stay.checkInDate(), stay.checkOutDate());
+        }
+        snapshot = rebuilt;
+        log.info("rebuild: indexed {} active stays across {} rooms from {}", stays.size(),
+                rebuilt.occupancy().size(), origin);
+    }
+
+    /**
+     * @return true when both dates fall inside the indexed horizon, otherwise callers must ask the database
+     */
+    public boolean covers(LocalDate checkInDate, LocalDate checkOutDate) {
+        Snapshot current = snapshot;
+        return current != null
+                && !checkInDate.isBefore(current.origin())
+                && current.dayIndex(checkOutDate) < HORIZON_DAYS;
+    }
+
+    public boolean isAvailable(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        Snapshot current = snapshot;
+        long[] words = current.occupancy().getOrDefault(roomId, EMPTY);
+        return !intersects(words, current.dayIndex(checkInDate), current.dayIndex(checkOutDate));
+    }
+
+    /**
+     * @return for each day from {@code from} to {@code to} inclusive, how many of {@code roomIds} are occupied;
+     * days outside the horizon count as free
+     */
+    public int[] occupiedCounts(Collection<Long> roomIds, LocalDate from, LocalDate to) {
+        int[] counts = new int[(int) ChronoUnit.DAYS.between(from, to) + 1];
+        Snapshot current = snapshot;
+        if (current == null) {
+            return counts;
+        }
+        int offset = current.dayIndex(from);
+        for (Long roomId : roomIds) {
+            long[] words = current.occupancy().get(roomId);
+            if (words == null) {
+                continue;
+            }
+            for (int i = 0; i < counts.length; i++) {
+                int day = offset + i;
+                if (day >= 0 && day < HORIZON_DAYS && (words[day >>> 6] & (1L << day)) != 0) {
+                    counts[i]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    public void onBookingCreated(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        afterCommit(() -> markBooked(roomId, checkInDate, checkOutDate));
+    }
+
+    public void onBookingChanged(Long roomId) {
+        afterCommit(() -> refreshRoom(roomId));
+    }
+
+    public synchronized void removeRoom(Long roomId) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.occupancy().remove(roomId);
+        }
+    }
+
+    private synchronized void markBooked(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long[] words = current.occupancy().getOrDefault(roomId, EMPTY).clone();
+        mark(current, words, checkInDate, checkOutDate);
+        current.occupancy().put(roomId, words);
+    }
+
+    private synchronized void refreshRoom(Long roomId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long[] words = new long[WORDS];
+        for (RoomOccupancy stay : bookingRepository.findActiveStaysByRoom(roomId, current.origin())) {
+            mark(current, words, stay.checkInDate(), stay.checkOutDate());
+        }
+        current.occupancy().put(roomId, words);
+    }
+
+    private static void mark(Snapshot snapshot, long[] words, LocalDate checkInDate, LocalDate checkOutDate) {
+        int fromDay = Math.max(snapshot.dayIndex(checkInDate), 0);
+        int toDay = Math.min(snapshot.dayIndex(checkOutDate), HORIZON_DAYS - 1);
+        for (int word = fromDay >>> 6; word <= toDay >>> 6 && fromDay <= toDay; word++) {
+            words[word] |= wordMask(word, fromDay, toDay);
+        }
+    }
+
+    private static boolean intersects(long[] words, int fromDay, int toDay) {
+        for (int word = fromDay >>> 6; word <= toDay >>> 6; word++) {
+            if ((words[word] & wordMask(word, fromDay, toDay)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long wordMask(int word, int fromDay, int toDay) {
+        long mask = -1L;
+        if (word == fromDay >>> 6) {
+            mask &= -1L << (fromDay & 63);
+        }
+        if (word == toDay >>> 6) {
+            mask &= -1L >>> (63 - (toDay & 63));
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,49 @@
+package za.co.simplitate.hotelbooking.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import za.co.simplitate.hotelbooking.exceptions.ServiceUnavailableException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-room locks that serialise bookings for the same room inside this node, so competing requests
+ * queue here instead of each holding a pooled connection while waiting on the room's row lock.
+ * The row lock taken by {@code RoomsRepository.findRoomForUpdate} still guards against other nodes.
+ * A request that waits too long is turned away with a 503, as the contention is ours, not the booking's.
+ */
+@Component
+@Slf4j
+public class RoomBookingLocks {
+
+    private static final int STRIPES = 256;
+    private static final long LOCK_TIMEOUT_SECONDS = 10;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public RoomBookingLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+    }
+
+    public <T> T withRoomLock(Long roomId, Supplier<T> action) {
+        ReentrantLock lock = locks[Math.floorMod(roomId.hashCode(), STRIPES)];
+        try {
+            if (!lock.tryLock(LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("withRoomLock: timed out waiting for room id={}", roomId);
+                throw new ServiceUnavailableException("Room is busy, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Booking interrupted, please try again");
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
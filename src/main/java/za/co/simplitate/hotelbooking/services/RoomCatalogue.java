@@ -0,0 +1,307 @@
+package za.co.simplitate.hotelbooking.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.entities.Room;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
+import za.co.simplitate.hotelbooking.util.GenericMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static za.co.simplitate.hotelbooking.util.TransactionUtil.afterCommit;
+
+/**
+ * Read-through, in-memory copy of the room catalogue, held as an immutable snapshot indexed by id, by
+ * {@link RoomType} (newest first, like the repository queries) and by description terms. The first read loads every room;
+ * after that reads never touch the database except for an id the snapshot doesn't know yet, e.g. a room
+ * added on another node; an id the database doesn't have either is remembered as missing for a few seconds.
+ * Admin add/update/delete replace just the affected room after commit, and a periodic reload picks up
+ * changes made elsewhere.
+ * <p>
+ * Every snapshot carries a {@link Version} derived from the rooms it holds, so the controllers can answer
+ * conditional GETs without reading or serializing any rooms. When rooms join or leave a {@link RoomType},
+ * however the catalogue learnt of it, a {@link RoomTypesChanged} event is published.
+ */
+@Component
+@Slf4j
+public class RoomCatalogue {
+
+    /** How long an id the database didn't have is answered as missing without asking it again. */
+    private static final long MISSING_TTL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int MAX_MISSING = 10_000;
+
+    private final RoomsRepository roomsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<Long, Long> missingUntil = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot;
+    /** Bumped under the lock by every put and remove, so a read-through load can tell that it raced one. */
+    private volatile long changes;
+
+    /**
+     * Identifies the catalogue content: {@link #etag()} is a hash of the rooms, so every node and every
+     * restart holding the same rooms agrees on it, and {@link #modifiedAt()} is when this node saw them
+     * change, truncated to the second like an HTTP date but always later than the previous version's.
+     */
+    public record Version(String contentHash, Instant modifiedAt) {
+
+        Version next(String contentHash) {
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            // a second change within the same second must still look modified to If-Modified-Since
+            return new Version(contentHash, now.isAfter(modifiedAt) ? now : modifiedAt.plusSeconds(1));
+        }
+
+        public String etag() {
+            return "\"rooms-" + contentHash + "\"";
+        }
+    }
+
+    /** The room types whose rooms changed, published after the change and outside the catalogue's lock. */
+    public record RoomTypesChanged(Set<RoomType> roomTypes) {
+    }
+
+    private record Snapshot(Map<Long, RoomTO> byId, Map<RoomType, List<RoomTO>> byType, List<RoomTO> all,
+                            RoomSearchIndex searchIndex, Version version) {
+
+        /** A snapshot of {@code rooms}, keeping {@code previous} as its version if they hash the same. */
+        static Snapshot of(Collection<RoomTO> rooms, Version previous) {
+            List<RoomTO> all = rooms.stream()
+                    .sorted(Comparator.comparing(RoomTO::id).reversed())
+                    .toList();
+            String contentHash = contentHash(all);
+            Version version;
+            if (previous == null) {
+                version = new Version(contentHash, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+            } else if (previous.contentHash().equals(contentHash)) {
+                version = previous;
+            } else {
+                version = previous.next(contentHash);
+            }
+            Map<Long, RoomTO> byId = new HashMap<>();
+            Map<RoomType, List<RoomTO>> byType = new EnumMap<>(RoomType.class);
+            for (RoomTO room : all) {
+                byId.put(room.id(), room);
+                if (room.roomType() != null) {
+                    byType.computeIfAbsent(room.roomType(), type -> new ArrayList<>()).add(room);
+                }
+            }
+            byType.replaceAll((type, list) -> List.copyOf(list));
+            return new Snapshot(Map.copyOf(byId), Collections.unmodifiableMap(byType), all,
+                    RoomSearchIndex.of(all), version);
+        }
+
+        /** Rooms are hashed in id order through their record string, which covers every field. */
+        private static String contentHash(List<RoomTO> all) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (RoomTO room : all) {
+                    digest.update(room.toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) '\n');
+                }
+                return HexFormat.of().formatHex(digest.digest(), 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public RoomCatalogue(RoomsRepository roomsRepository, ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry) {
+        this.roomsRepository = roomsRepository;
+        this.eventPublisher = eventPublisher;
+        this.hits = meterRegistry.counter("rooms.catalogue.requests", "result", "hit");
+        this.misses = meterRegistry.counter("rooms.catalogue.requests", "result", "miss");
+    }
+
+    /**
+     * Version of the rooms every read after this call sees, or a later one. Callers answering conditional
+     * requests take the version before reading rooms, so a response is never tagged newer than its body.
+     */
+    public Version version() {
+        return current().version();
+    }
+
+    public List<RoomTO> findAll() {
+        return current().all();
+    }
+
+    public List<RoomTO> findByType(RoomType roomType) {
+        return current().byType().getOrDefault(roomType, List.of());
+    }
+
+    public List<RoomTO> findByTypeAndCapacity(RoomType roomType, Integer minCapacity) {
+        Snapshot current = current();
+        List<RoomTO> candidates = roomType != null
+                ? current.byType().getOrDefault(roomType, List.of())
+                : current.all();
+        if (minCapacity == null) {
+            return candidates;
+        }
+        return candidates.stream()
+                .filter(room -> room.capacity() != null && room.capacity() >= minCapacity)
+                .toList();
+    }
+
+    /**
+     * Ranked prefix search over room descriptions and types, see {@link RoomSearchIndex}.
+     */
+    public List<RoomTO> search(String query, RoomType roomType, Integer minCapacity, int limit) {
+        return current().searchIndex().search(query, roomType, minCapacity, limit);
+    }
+
+    public Optional<RoomTO> findById(Long roomId) {
+        Snapshot current = snapshot;
+        RoomTO room = current != null ? current.byId().get(roomId) : null;
+        if (room != null) {
+            hits.increment();
+            return Optional.of(room);
+        }
+        Long missing = missingUntil.get(roomId);
+        if (missing != null && missing - System.nanoTime() > 0) {
+            hits.increment();
+            return Optional.empty();
+        }
+        misses.increment();
+        long seen = changes;
+        Optional<RoomTO> loaded = roomsRepository.findById(roomId).map(GenericMapper::mapToRoomTO);
+        publish(cacheLoaded(roomId, loaded.orElse(null), seen));
+        return loaded;
+    }
+
+    public void onRoomSaved(Room room) {
+        RoomTO roomTO = GenericMapper.mapToRoomTO(room);
+        afterCommit(() -> publish(put(roomTO)));
+    }
+
+    public void onRoomDeleted(Long roomId) {
+        afterCommit(() -> publish(remove(roomId)));
+    }
+
+    @Scheduled(fixedDelayString = "${rooms.catalogue.refresh-interval-ms:300000}",
+            initialDelayString = "${rooms.catalogue.refresh-interval-ms:300000}")
+    public void reload() {
+        publish(refresh());
+    }
+
+    private synchronized Set<RoomType> refresh() {
+        List<RoomTO> rooms = roomsRepository.findAll().stream()
+                .map(GenericMapper::mapToRoomTO)
+                .toList();
+        Snapshot current = snapshot;
+        if (current != null && unchanged(current, rooms)) {
+            // keeping the snapshot keeps its version, so clients' cached copies stay valid
+            log.info("reload: {} rooms unchanged", rooms.size());
+            return Set.of();
+        }
+        snapshot = Snapshot.of(rooms, current != null ? current.version() : null);
+        log.info("reload: cached {} rooms, version {}", rooms.size(), snapshot.version().etag());
+        // nothing was derived from a catalogue that wasn't loaded yet
+        return current != null ? typesChanged(current, snapshot) : Set.of();
+    }
+
+    private static boolean unchanged(Snapshot current, List<RoomTO> rooms) {
+        if (current.byId().size() != rooms.size()) {
+            return false;
+        }
+        for (RoomTO room : rooms) {
+            if (!room.equals(current.byId().get(room.id()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        synchronized (this) {
+            if (snapshot == null) {
+                refresh();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Caches a read-through result, unless a put or remove landed while it was loading: a room deleted
+     * after the load read it must not come back, nor a room created after the load missed it stay missing.
+     */
+    private synchronized Set<RoomType> cacheLoaded(Long roomId, RoomTO room, long seen) {
+        if (changes != seen) {
+            return Set.of();
+        }
+        if (room != null) {
+            return put(room);
+        }
+        if (missingUntil.size() >= MAX_MISSING) {
+            missingUntil.clear();
+        }
+        missingUntil.put(roomId, System.nanoTime() + MISSING_TTL_NANOS);
+        return Set.of();
+    }
+
+    private synchronized Set<RoomType> put(RoomTO room) {
+        changes++;
+        missingUntil.remove(room.id());
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Set.of();
+        }
+        Map<Long, RoomTO> rooms = new HashMap<>(current.byId());
+        rooms.put(room.id(), room);
+        snapshot = Snapshot.of(rooms.values(), current.version());
+        return typesChanged(current, snapshot);
+    }
+
+    private synchronized Set<RoomType> remove(Long roomId) {
+        changes++;
+        Snapshot current = snapshot;
+        if (current == null || !current.byId().containsKey(roomId)) {
+            return Set.of();
+        }
+        Map<Long, RoomTO> rooms = new HashMap<>(current.byId());
+        rooms.remove(roomId);
+        snapshot = Snapshot.of(rooms.values(), current.version());
+        return typesChanged(current, snapshot);
+    }
+
+    /** Room types that gained or lost rooms between two snapshots. */
+    private static Set<RoomType> typesChanged(Snapshot before, Snapshot after) {
+        Set<RoomType> changed = EnumSet.noneOf(RoomType.class);
+        for (RoomType roomType : RoomType.values()) {
+            if (!roomIds(before, roomType).equals(roomIds(after, roomType))) {
+                changed.add(roomType);
+            }
+        }
+        return changed;
+    }
+
+    private static List<Long> roomIds(Snapshot snapshot, RoomType roomType) {
+        return snapshot.byType().getOrDefault(roomType, List.of()).stream().map(RoomTO::id).toList();
+    }
+
+    private void publish(Set<RoomType> roomTypes) {
+        if (!roomTypes.isEmpty()) {
+            eventPublisher.publishEvent(new RoomTypesChanged(Set.copyOf(roomTypes)));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package za.co.simplitate.hotelbooking.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import za.co.simplitate.hotelbooking.images.*;
+import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static za.co.simplitate.hotelbooking.util.TransactionUtil.afterCommit;
+
+/**
+ * Produces the {@link ImageVariant}s of a room's uploaded image in the background. Work is queued once the
+ * saving transaction commits, runs on the bounded {@code imageVariantExecutor}, and records the variant
+ * URLs only if the room still has the image they were made from. Until then, and if the queue is full or
+ * the image cannot be decoded, clients fall back to {@code imageUrl}.
+ */
+@Component
+@Slf4j
+public class RoomImagePipeline {
+
+    private final ImageStore imageStore;
+    private final RoomsRepository roomsRepository;
+    private final RoomCatalogue roomCatalogue;
+    private final Executor imageVariantExecutor;
+
+    public RoomImagePipeline(ImageStore imageStore,
+                             RoomsRepository roomsRepository,
+                             RoomCatalogue roomCatalogue,
+                             @Qualifier("imageVariantExecutor") Executor imageVariantExecutor) {
+        this.imageStore = imageStore;
+        this.roomsRepository = roomsRepository;
+        this.roomCatalogue = roomCatalogue;
+        this.imageVariantExecutor = imageVariantExecutor;
+    }
+
+    public void onImageStored(Long roomId, String imageUrl) {
+        afterCommit(() -> {
+            try {
+                imageVariantExecutor.execute(() -> createVariants(roomId, imageUrl));
+            } catch (TaskRejectedException e) {
+                log.warn("onImageStored: variant queue full, room {} keeps its original image", roomId);
+            }
+        });
+    }
+
+    void createVariants(Long roomId, String imageUrl) {
+        long started = System.nanoTime();
+        try {
+            Optional<BufferedImage> source = decode(imageUrl);
+            if (source.isEmpty()) {
+                log.warn("createVariants: cannot decode {} for room {}", imageUrl, roomId);
+                return;
+            }
+            Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+            for (ImageVariant variant : ImageVariant.values()) {
+                byte[] rendered = ImageResizer.render(source.get(), variant);
+                String key = imageStore.store(new ByteArrayInputStream(rendered), rendered.length,
+                        ImageResizer.CONTENT_TYPE);
+                urls.put(variant, ImageKeys.URL_PREFIX + key);
+            }
+            int updated = roomsRepository.updateImageVariants(roomId, imageUrl, urls.get(ImageVariant.THUMBNAIL),
+                    urls.get(ImageVariant.MEDIUM), urls.get(ImageVariant.FULL));
+            if (updated == 0) {
+                log.info("createVariants: room {} no longer uses {}, variants discarded", roomId, imageUrl);
+                return;
+            }
+            roomsRepository.findById(roomId).ifPresent(roomCatalogue::onRoomSaved);
+            log.info("createVariants: room {} variants ready in {}ms", roomId, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("createVariants: failed for room {}", roomId, e);
+        }
+    }
+
+    private Optional<BufferedImage> decode(String imageUrl) throws IOException {
+        if (imageUrl == null || !imageUrl.startsWith(ImageKeys.URL_PREFIX)) {
+            return Optional.empty();
+        }
+        Optional<StoredImage> stored = imageStore.find(imageUrl.substring(ImageKeys.URL_PREFIX.length()));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        StoredImage image = stored.get();
+        Optional<Path> localPath = image.localPath();
+        if (localPath.isPresent()) {
+            try (InputStream in = Files.newInputStream(localPath.get())) {
+                return ImageResizer.decode(in);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) image.length());
+        image.writeTo(0, image.length(), bytes);
+        return ImageResizer.decode(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
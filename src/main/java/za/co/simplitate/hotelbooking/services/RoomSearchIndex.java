@@ -0,0 +1,229 @@
+package za.co.simplitate.hotelbooking.services;
+
+import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Immutable inverted index over room descriptions and types. Queries are split into terms, every term
+ * matches as a case- and accent-insensitive prefix, and a room must match all terms. Results are ranked by
+ * BM25, with exact term matches weighted above prefix expansions, then newest room first. Matching walks
+ * sorted posting lists from the rarest term, and a prefix merges only the postings of the terms it expands to,
+ * so cost follows the matches rather than the room count.
+ */
+public final class RoomSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    private final RoomTO[] rooms;
+    /** Sorted distinct terms; postings (ascending room ordinals) and BM25 scores are parallel to it. */
+    private final String[] terms;
+    private final int[][] postings;
+    private final float[][] scores;
+
+    private record Matches(int[] docs, float[] scores, double weight) {
+
+        static final Matches NONE = new Matches(new int[0], new float[0], 0);
+
+        double score(int index) {
+            return weight * scores[index];
+        }
+    }
+
+    private record ScoredRoom(int doc, double score) {
+    }
+
+    private RoomSearchIndex(RoomTO[] rooms, String[] terms, int[][] postings, float[][] scores) {
+        this.rooms = rooms;
+        this.terms = terms;
+        this.postings = postings;
+        this.scores = scores;
+    }
+
+    public static RoomSearchIndex of(List<RoomTO> rooms) {
+        RoomTO[] documents = rooms.toArray(RoomTO[]::new);
+        int[] lengths = new int[documents.length];
+        SortedMap<String, Map<Integer, Integer>> inverted = new TreeMap<>();
+        for (int doc = 0; doc < documents.length; doc++) {
+            List<String> tokens = tokenize(text(documents[doc]));
+            lengths[doc] = tokens.size();
+            for (String token : tokens) {
+                inverted.computeIfAbsent(token, term -> new LinkedHashMap<>()).merge(doc, 1, Integer::sum);
+            }
+        }
+        double averageLength = Math.max(1, Arrays.stream(lengths).average().orElse(1));
+        String[] terms = inverted.keySet().toArray(String[]::new);
+        int[][] postings = new int[terms.length][];
+        float[][] scores = new float[terms.length][];
+        for (int t = 0; t < terms.length; t++) {
+            Map<Integer, Integer> docs = inverted.get(terms[t]);
+            double idf = Math.log(1 + (documents.length - docs.size() + 0.5) / (docs.size() + 0.5));
+            postings[t] = new int[docs.size()];
+            scores[t] = new float[docs.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> posting : docs.entrySet()) {
+                int tf = posting.getValue();
+                double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * lengths[posting.getKey()] / averageLength));
+                postings[t][i] = posting.getKey();
+                scores[t][i] = (float) (idf * norm);
+                i++;
+            }
+        }
+        return new RoomSearchIndex(documents, terms, postings, scores);
+    }
+
+    /**
+     * @return the best {@code limit} rooms matching every term of {@code query}, highest score first
+     */
+    public List<RoomTO> search(String query, RoomType roomType, Integer minCapacity, int limit) {
+        List<String> queryTerms = tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Matches> matches = new ArrayList<>(queryTerms.size());
+        for (String queryTerm : queryTerms) {
+            Matches termMatches = match(queryTerm);
+            if (termMatches.docs().length == 0) {
+                return List.of();
+            }
+            matches.add(termMatches);
+        }
+        matches.sort(Comparator.comparingInt(termMatches -> termMatches.docs().length));
+
+        Comparator<ScoredRoom> ranking = Comparator.comparingDouble(ScoredRoom::score)
+                .thenComparing(scored -> rooms[scored.doc()].id());
+        PriorityQueue<ScoredRoom> top = new PriorityQueue<>(limit + 1, ranking);
+        int[] cursors = new int[matches.size()];
+        Matches smallest = matches.getFirst();
+        candidates:
+        for (int i = 0; i < smallest.docs().length; i++) {
+            int doc = smallest.docs()[i];
+            RoomTO room = rooms[doc];
+            if ((roomType != null && room.roomType() != roomType)
+                    || (minCapacity != null && (room.capacity() == null || room.capacity() < minCapacity))) {
+                continue;
+            }
+            double total = smallest.score(i);
+            for (int m = 1; m < matches.size(); m++) {
+                int[] docs = matches.get(m).docs();
+                int cursor = advance(docs, cursors[m], doc);
+                cursors[m] = cursor;
+                if (cursor == docs.length || docs[cursor] != doc) {
+                    continue candidates;
+                }
+                total += matches.get(m).score(cursor);
+            }
+            if (top.size() < limit) {
+                top.offer(new ScoredRoom(doc, total));
+            } else if (ranking.compare(new ScoredRoom(doc, total), top.peek()) > 0) {
+                top.poll();
+                top.offer(new ScoredRoom(doc, total));
+            }
+        }
+        return top.stream()
+                .sorted(ranking.reversed())
+                .map(scored -> rooms[scored.doc()])
+                .toList();
+    }
+
+    /** Rooms containing a term that starts with {@code prefix}, keeping each room's best term score. */
+    private Matches match(String prefix) {
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < terms.length && terms[to].startsWith(prefix)) {
+            to++;
+        }
+        if (from == to) {
+            return Matches.NONE;
+        }
+        if (to - from == 1) {
+            return new Matches(postings[from], scores[from],
+                    terms[from].length() == prefix.length() ? 1.0 : PREFIX_WEIGHT);
+        }
+        // merge the expanded terms' postings: each (room, weighted score) is packed into one long so a sort
+        // groups a room's postings with its best score last; scores are positive, so their bits sort as floats
+        int total = 0;
+        for (int t = from; t < to; t++) {
+            total += postings[t].length;
+        }
+        long[] packed = new long[total];
+        int n = 0;
+        for (int t = from; t < to; t++) {
+            float weight = terms[t].length() == prefix.length() ? 1f : (float) PREFIX_WEIGHT;
+            for (int i = 0; i < postings[t].length; i++) {
+                int scoreBits = Float.floatToRawIntBits(weight * scores[t][i]);
+                packed[n++] = ((long) postings[t][i] << 32) | (scoreBits & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(packed);
+        int[] docs = new int[total];
+        float[] docScores = new float[total];
+        int count = 0;
+        for (int i = 0; i < total; i++) {
+            int doc = (int) (packed[i] >>> 32);
+            if (i + 1 < total && (int) (packed[i + 1] >>> 32) == doc) {
+                continue;
+            }
+            docs[count] = doc;
+            docScores[count] = Float.intBitsToFloat((int) packed[i]);
+            count++;
+        }
+        if (count < total) {
+            docs = Arrays.copyOf(docs, count);
+            docScores = Arrays.copyOf(docScores, count);
+        }
+        return new Matches(docs, docScores, 1.0);
+    }
+
+    /** First index at or after {@code from} whose value is at least {@code doc}, galloping then bisecting. */
+    private static int advance(int[] docs, int from, int doc) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < docs.length && docs[high] < doc) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, docs.length);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (docs[mid] < doc) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lowerBound(String prefix) {
+        int index = Arrays.binarySearch(terms, prefix);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static String text(RoomTO room) {
+        String type = room.roomType() != null ? room.roomType().name() : "";
+        return type + " " + Objects.requireNonNullElse(room.description(), "");
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -2,6 +2,7 @@ package za.co.simplitate.hotelbooking.services;
 
 import org.springframework.web.multipart.MultipartFile;
 import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.dtos.RoomListResponse;
 import za.co.simplitate.hotelbooking.dtos.RoomTO;
 import za.co.simplitate.hotelbooking.enums.RoomType;
 
@@ -12,11 +13,13 @@ public interface RoomService {
 
     Response addRoom(RoomTO roomTO, MultipartFile imageFile);
     Response updateRoom(RoomTO roomTO, MultipartFile imageFile);
-    Response getAllRooms();
+    RoomListResponse getAllRooms();
     Response getRoomById(Long roomId);
     Response deleteRoom(Long roomId);
-    Response getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType);
+    RoomListResponse getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType,
+                               Integer minCapacity);
     List<RoomType> getAllRoomTypes();
-    Response searchRoom(String input);
+    Response searchRoom(String input, RoomType roomType, Integer minCapacity);
     Response getRoomsByType(RoomType roomType);
+    RoomCatalogue.Version getRoomsVersion();
 }
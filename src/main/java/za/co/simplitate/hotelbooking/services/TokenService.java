@@ -0,0 +1,12 @@
+package za.co.simplitate.hotelbooking.services;
+
+import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.entities.User;
+
+public interface TokenService {
+
+    String createRefreshToken(User user);
+    Response refresh(String refreshToken);
+    Response logout(String accessToken, String refreshToken);
+    void revokeAll(User user);
+}
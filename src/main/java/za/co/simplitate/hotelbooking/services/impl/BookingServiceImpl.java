@@ -2,8 +2,10 @@ package za.co.simplitate.hotelbooking.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import za.co.simplitate.hotelbooking.dtos.BookingTO;
 import za.co.simplitate.hotelbooking.dtos.NotificationTO;
 import za.co.simplitate.hotelbooking.dtos.Response;
@@ -19,13 +21,17 @@ import za.co.simplitate.hotelbooking.repositories.BookingRepository;
 import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
 import za.co.simplitate.hotelbooking.services.BookingCodeGenerator;
 import za.co.simplitate.hotelbooking.services.BookingService;
+import za.co.simplitate.hotelbooking.services.RateCalendar;
+import za.co.simplitate.hotelbooking.services.RoomAvailabilityIndex;
+import za.co.simplitate.hotelbooking.services.RoomBookingLocks;
 import za.co.simplitate.hotelbooking.services.UserService;
 import za.co.simplitate.hotelbooking.util.GenericMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static za.co.simplitate.hotelbooking.Const.ROOM_NOT_FOUND;
 import static za.co.simplitate.hotelbooking.Const.SUCCESS;
@@ -40,6 +46,7 @@ public class BookingServiceImpl implements BookingService {
     private static final String BOOKING_CONFIRMATION = "BOOKING CONFIRMATION";
     private static final String BOOKING_REF_NOT_FOUND = "Booking with ref=%s not found!!";
     private static final String BOOKING_ID_NOT_FOUND = "Booking with ref=%d not found!!";
+    private static final int MAX_PAGE_SIZE = 500;
 
     private final BookingRepository bookingRepository;
 
@@ -51,43 +58,90 @@ public class BookingServiceImpl implements BookingService {
 
     private final BookingCodeGenerator bookingCodeGenerator;
 
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+
+    private final RateCalendar rateCalendar;
+
+    private final RoomBookingLocks roomBookingLocks;
+
+    private final TransactionTemplate transactionTemplate;
+
     @Override
-    public Response getAllBookings() {
-        log.info("getAllBookings: ");
-        List<Booking> bookingList = bookingRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-        List<BookingTO> bookingTOList = bookingList.stream()
-                .map(GenericMapper::mapMinimalBookingTO)
-                .toList();
+    public Response getAllBookings(Long afterId, int limit) {
+        log.info("getAllBookings: afterId={} limit={}", afterId, limit);
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<BookingTO> bookingTOList = bookingRepository.findBookingPage(
+                afterId != null ? afterId : Long.MAX_VALUE, Limit.of(pageSize));
+        Long nextAfterId = bookingTOList.size() == pageSize ? bookingTOList.getLast().id() : null;
         return Response.builder()
                 .message(SUCCESS)
                 .bookings(bookingTOList)
+                .nextAfterId(nextAfterId)
                 .status(200)
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookings(LocalDate fromDate, LocalDate toDate, BookingStatus bookingStatus,
+                               Consumer<BookingTO> sink) {
+        log.info("exportBookings: from={} to={} status={}", fromDate, toDate, bookingStatus);
+        try (Stream<BookingTO> bookings = bookingRepository.streamBookings(fromDate, toDate, bookingStatus)) {
+            bookings.forEach(sink);
+        }
+    }
+
     @Override
     public Response createBooking(BookingTO bookingTO) {
         log.info("createBooking: ");
         User currentUser = userService.getCurrentLoggedInUser();
+        validateDates(bookingTO.checkInDate(), bookingTO.checkOutDate());
+
+        if (bookingTO.room() == null || bookingTO.room().id() == null) {
+            throw new NotFoundException("Room Id is required");
+        }
+        Long roomId = bookingTO.room().id();
+        Booking persistedBooking = roomBookingLocks.withRoomLock(roomId,
+                () -> transactionTemplate.execute(status -> {
+                    Booking booking = reserveRoom(bookingTO, currentUser, roomId);
+                    // queued in the booking's transaction, delivered by the outbox dispatcher
+                    notificationService.sendEmail(createBookingNotification(currentUser, booking));
+                    return booking;
+                }));
+        BookingTO createdBookingTO = GenericMapper.mapToBookingTO(persistedBooking);
 
-        Long roomId = bookingTO.room().getId();
-        Room room = roomsRepository.findById(roomId)
+        return Response.builder()
+                .status(200)
+                .message(BOOKING_CREATED_SUCCESSFULLY)
+                .booking(createdBookingTO)
+                .build();
+    }
+
+    /**
+     * Runs inside the room's lock and transaction: the room row stays locked until commit, so the
+     * availability check and the insert cannot interleave with another booking for the same room.
+     */
+    private Booking reserveRoom(BookingTO bookingTO, User currentUser, Long roomId) {
+        Room room = roomsRepository.findRoomForUpdate(roomId)
                 .orElseThrow(() -> {
                     var message = String.format(ROOM_NOT_FOUND, roomId);
                     log.warn(message);
                     return new NotFoundException(message);
                 });
-
-        validateDates(bookingTO.checkInDate(), bookingTO.checkOutDate());
         checkRoomAvailability(bookingTO, room);
 
         BigDecimal totalPrice = calculateTotalPrice(room, bookingTO);
         String bookingRef = bookingCodeGenerator.generateBookingReference();
         Booking booking = createBooking(bookingTO, currentUser, room, totalPrice, bookingRef);
         Booking persistedBooking = bookingRepository.save(booking);
-        bookingTO = GenericMapper.mapToBookingTO(persistedBooking);
+        roomAvailabilityIndex.onBookingCreated(roomId, booking.getCheckInDate(), booking.getCheckOutDate());
+        rateCalendar.onOccupancyChanged(room.getRoomType(), booking.getCheckInDate(), booking.getCheckOutDate());
+        return persistedBooking;
+    }
 
-        String paymentLink = "http://localhost:4200/payment" + bookingRef + "/" + totalPrice;
+    private static NotificationTO createBookingNotification(User currentUser, Booking booking) {
+        String bookingRef = booking.getBookingReference();
+        String paymentLink = "http://localhost:4200/payment" + bookingRef + "/" + booking.getTotalPrice();
         log.info("Booking payment link {}", paymentLink);
 
         String emailMessage = String.format(""" 
@@ -95,14 +149,7 @@ public class BookingServiceImpl implements BookingService {
                         Please process with the payment using the link below
                         %s
                         """, paymentLink);
-        NotificationTO notificationTO = createNotification(currentUser, emailMessage, bookingRef);
-        notificationService.sendEmail(notificationTO);
-
-        return Response.builder()
-                .status(200)
-                .message(BOOKING_CREATED_SUCCESSFULLY)
-                .booking(bookingTO)
-                .build();
+        return createNotification(currentUser, emailMessage, bookingRef);
     }
 
     private static NotificationTO createNotification(User currentUser, String emailMessage, String bookingRef) {
@@ -137,9 +184,8 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private BigDecimal calculateTotalPrice(Room room, BookingTO bookingTO) {
-        BigDecimal pricePerNight = room.getPricePerNight();
-        long days = ChronoUnit.DAYS.between(bookingTO.checkInDate(), bookingTO.checkOutDate());
-        return pricePerNight.multiply(BigDecimal.valueOf(days));
+        return rateCalendar.price(room.getRoomType(), room.getPricePerNight(), bookingTO.checkInDate(),
+                bookingTO.checkOutDate());
     }
 
     @Override
@@ -173,6 +219,9 @@ public class BookingServiceImpl implements BookingService {
         }
 
         bookingRepository.save(existingBooking);
+        roomAvailabilityIndex.onBookingChanged(existingBooking.getRoom().getId());
+        rateCalendar.onOccupancyChanged(existingBooking.getRoom().getRoomType(), existingBooking.getCheckInDate(),
+                existingBooking.getCheckOutDate());
         return Response.builder()
                 .status(204)
                 .message("Booking updated successfully")
@@ -183,7 +232,7 @@ public class BookingServiceImpl implements BookingService {
     private Booking queryBooking(BookingTO bookingTO) {
         if(bookingTO.id() == null)
             throw new NotFoundException("Booking Id is required");
-        return bookingRepository.findById(bookingTO.id())
+        return bookingRepository.findWithRoomById(bookingTO.id())
                 .orElseThrow(() -> {
                     var message = String.format(BOOKING_ID_NOT_FOUND,  bookingTO.id());
                     log.warn(message);
@@ -0,0 +1,257 @@
+package za.co.simplitate.hotelbooking.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.entities.IdempotencyRecord;
+import za.co.simplitate.hotelbooking.exceptions.IdempotencyConflictException;
+import za.co.simplitate.hotelbooking.exceptions.NameValueRequiredException;
+import za.co.simplitate.hotelbooking.repositories.IdempotencyRecordRepository;
+import za.co.simplitate.hotelbooking.security.CurrentUser;
+import za.co.simplitate.hotelbooking.services.IdempotencyService;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static za.co.simplitate.hotelbooking.Const.IDEMPOTENCY_KEY;
+
+/**
+ * Remembers the responses of requests sent with an Idempotency-Key. Recent responses are answered from
+ * memory; a duplicate that arrives while the first request is running waits for it on this node, and gets
+ * a 409 if the first request runs on another node. Only successful responses are stored, so a retry after
+ * a failure runs the action again. Once an action has succeeded its key is never freed before it expires,
+ * even if storing the response failed, so a retry cannot run it twice. Stored responses are encrypted, as
+ * they hold payment client secrets and guest details.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    public static final String KEY_REUSED = IDEMPOTENCY_KEY + " was already used for a different request";
+    public static final String IN_PROGRESS = "A request with this " + IDEMPOTENCY_KEY + " is still in progress";
+    public static final String OUTCOME_UNKNOWN = "A request with this " + IDEMPOTENCY_KEY
+            + " did not finish and may have been applied, check before retrying with a new key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final CurrentUser currentUser;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration cacheTtl;
+    private final Duration abandonedAfter;
+    private final SecretKey responseKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // recent and running executions on this node, by record id
+    private final Map<String, Execution> executions = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  CurrentUser currentUser,
+                                  ObjectMapper objectMapper,
+                                  @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${idempotency.cache-ttl-seconds:600}") long cacheTtlSeconds,
+                                  @Value("${idempotency.abandoned-after-seconds:120}") long abandonedAfterSeconds,
+                                  @Value("${idempotency.encryption-secret}") String encryptionSecret) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.currentUser = currentUser;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cacheTtl = Duration.ofSeconds(Math.min(cacheTtlSeconds, ttl.toSeconds()));
+        this.abandonedAfter = Duration.ofSeconds(abandonedAfterSeconds);
+        // a 256 bit key whatever the secret's length, and distinct from other keys derived from the same secret
+        this.responseKey = new SecretKeySpec(HexFormat.of().parseHex(hash("idempotency:" + encryptionSecret)),
+                "AES");
+    }
+
+    @Override
+    public Response execute(String scope, String idempotencyKey, Object request, Function<String, Response> action) {
+        if (idempotencyKey == null) {
+            return action.apply(null);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new NameValueRequiredException(IDEMPOTENCY_KEY + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = hash(scope + ':' + currentUser.principal().id() + ':' + idempotencyKey);
+        String requestHash = hash(toJson(request));
+        Execution execution = new Execution(requestHash);
+        while (true) {
+            Execution existing = executions.putIfAbsent(id, execution);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired(Instant.now())) {
+                log.info("execute: replaying {} request for key {}", scope, idempotencyKey);
+                return existing.await(requestHash);
+            }
+            executions.remove(id, existing);
+        }
+        try {
+            Response response = executeOnce(id, requestHash, () -> action.apply(id));
+            execution.complete(response, Instant.now().plus(cacheTtl));
+            return response;
+        } catch (RuntimeException e) {
+            executions.remove(id, execution);
+            execution.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        executions.values().removeIf(execution -> execution.isExpired(now));
+        int deleted = idempotencyRecordRepository.deleteExpired(now);
+        log.info("purgeExpired: removed {} expired idempotency records", deleted);
+    }
+
+    private Response executeOnce(String id, String requestHash, Supplier<Response> action) {
+        Instant now = Instant.now();
+        if (idempotencyRecordRepository.claim(id, requestHash, now, now.plus(ttl)) == 0) {
+            if (idempotencyRecordRepository.release(id, now) > 0) {
+                return executeOnce(id, requestHash, action);
+            }
+            return stored(id, requestHash, now);
+        }
+        Response response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.deleteById(id);
+            throw e;
+        }
+        try {
+            idempotencyRecordRepository.complete(id, encrypt(toJson(response)));
+        } catch (RuntimeException e) {
+            // the action has run, so the claim stays: a retry is told the outcome is unknown rather than rerun
+            log.error("executeOnce: response of {} not stored: {}", id, e.getMessage());
+        }
+        return response;
+    }
+
+    private Response stored(String id, String requestHash, Instant now) {
+        IdempotencyRecord stored = idempotencyRecordRepository.findById(id)
+                .orElseThrow(() -> new IdempotencyConflictException(IN_PROGRESS));
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(KEY_REUSED);
+        }
+        if (stored.getResponse() == null) {
+            throw new IdempotencyConflictException(stored.getCreatedAt().isBefore(now.minus(abandonedAfter))
+                    ? OUTCOME_UNKNOWN
+                    : IN_PROGRESS);
+        }
+        try {
+            return objectMapper.readValue(decrypt(stored.getResponse()), Response.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Base64 of the random IV followed by the AES-GCM ciphertext. */
+    private String encrypt(String json) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, responseKey, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(json.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(IV_LENGTH + encrypted.length)
+                    .put(iv)
+                    .put(encrypted)
+                    .array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String decrypt(String stored) {
+        if (stored.startsWith("{")) {
+            // stored as plain JSON before responses were encrypted, gone once those records expire
+            return stored;
+        }
+        try {
+            byte[] bytes = Base64.getDecoder().decode(stored);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, responseKey, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_LENGTH));
+            return new String(cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Stored response for an " + IDEMPOTENCY_KEY + " cannot be read", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Execution {
+
+        private final String requestHash;
+        private final CompletableFuture<Response> response = new CompletableFuture<>();
+        private volatile Instant cachedUntil = Instant.MAX;
+
+        private Execution(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        private void complete(Response value, Instant until) {
+            cachedUntil = until;
+            response.complete(value);
+        }
+
+        private boolean isExpired(Instant now) {
+            return cachedUntil.isBefore(now);
+        }
+
+        private Response await(String otherRequestHash) {
+            if (!requestHash.equals(otherRequestHash)) {
+                throw new IdempotencyConflictException(KEY_REUSED);
+            }
+            try {
+                return response.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
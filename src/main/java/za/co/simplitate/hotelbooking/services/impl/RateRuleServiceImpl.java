@@ -0,0 +1,127 @@
+package za.co.simplitate.hotelbooking.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import za.co.simplitate.hotelbooking.dtos.RateRuleTO;
+import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.entities.RateRule;
+import za.co.simplitate.hotelbooking.exceptions.InvalidRequestException;
+import za.co.simplitate.hotelbooking.exceptions.NotFoundException;
+import za.co.simplitate.hotelbooking.repositories.RateRuleRepository;
+import za.co.simplitate.hotelbooking.services.RateCalendar;
+import za.co.simplitate.hotelbooking.services.RateRuleService;
+import za.co.simplitate.hotelbooking.util.GenericMapper;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static za.co.simplitate.hotelbooking.Const.RATE_RULE_NOT_FOUND;
+import static za.co.simplitate.hotelbooking.Const.SUCCESS;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateRuleServiceImpl implements RateRuleService {
+
+    private final RateRuleRepository rateRuleRepository;
+
+    private final RateCalendar rateCalendar;
+
+    @Override
+    public Response getAllRateRules() {
+        log.info("getAllRateRules: ");
+        List<RateRuleTO> rateRules = rateRuleRepository.findAll().stream()
+                .map(GenericMapper::mapToRateRuleTO)
+                .toList();
+        return Response.builder()
+                .status(200)
+                .message(SUCCESS)
+                .rateRules(rateRules)
+                .build();
+    }
+
+    @Override
+    public Response addRateRule(RateRuleTO rateRuleTO) {
+        log.info("addRateRule: {}", rateRuleTO);
+        validateDates(rateRuleTO);
+        RateRule rateRule = GenericMapper.mapToRateRule(rateRuleTO);
+        rateRule.setId(null);
+        RateRule saved = rateRuleRepository.save(rateRule);
+        rateCalendar.onRuleChanged(null, saved);
+        return Response.builder()
+                .status(201)
+                .message("Rate rule successfully added.")
+                .rateRule(GenericMapper.mapToRateRuleTO(saved))
+                .build();
+    }
+
+    @Override
+    public Response updateRateRule(RateRuleTO rateRuleTO) {
+        log.info("updateRateRule: {}", rateRuleTO);
+        validateDates(rateRuleTO);
+        RateRule existing = findRateRule(rateRuleTO.id());
+        // the calendar needs what the rule covered before, the entity is updated in place
+        RateRule previous = copyOf(existing);
+        RateRule updated = GenericMapper.mapToRateRule(rateRuleTO);
+        existing.setName(updated.getName());
+        existing.setRoomType(updated.getRoomType());
+        existing.setStartDate(updated.getStartDate());
+        existing.setEndDate(updated.getEndDate());
+        existing.setDaysOfWeek(updated.getDaysOfWeek());
+        existing.setMinOccupancyPercent(updated.getMinOccupancyPercent());
+        existing.setMultiplier(updated.getMultiplier());
+        RateRule saved = rateRuleRepository.save(existing);
+        rateCalendar.onRuleChanged(previous, saved);
+        return Response.builder()
+                .status(200)
+                .message("Rate rule successfully updated.")
+                .rateRule(GenericMapper.mapToRateRuleTO(saved))
+                .build();
+    }
+
+    @Override
+    public Response deleteRateRule(Long rateRuleId) {
+        log.info("deleteRateRule: rateRuleId={}", rateRuleId);
+        RateRule existing = findRateRule(rateRuleId);
+        rateRuleRepository.delete(existing);
+        rateCalendar.onRuleChanged(existing, null);
+        return Response.builder()
+                .status(204)
+                .message("Rate rule deleted successfully")
+                .build();
+    }
+
+    private RateRule findRateRule(Long rateRuleId) {
+        if (rateRuleId == null) {
+            throw new NotFoundException("Rate rule Id is required");
+        }
+        return rateRuleRepository.findById(rateRuleId)
+                .orElseThrow(() -> {
+                    var message = String.format(RATE_RULE_NOT_FOUND, rateRuleId);
+                    log.warn(message);
+                    return new NotFoundException(message);
+                });
+    }
+
+    private static void validateDates(RateRuleTO rateRuleTO) {
+        if (rateRuleTO.startDate() != null && rateRuleTO.endDate() != null
+                && rateRuleTO.endDate().isBefore(rateRuleTO.startDate())) {
+            throw new InvalidRequestException(String.format("Rate rule end date %s must not be before its start date %s",
+                    rateRuleTO.endDate(), rateRuleTO.startDate()));
+        }
+    }
+
+    private static RateRule copyOf(RateRule rateRule) {
+        return RateRule.builder()
+                .id(rateRule.getId())
+                .name(rateRule.getName())
+                .roomType(rateRule.getRoomType())
+                .startDate(rateRule.getStartDate())
+                .endDate(rateRule.getEndDate())
+                .daysOfWeek(new HashSet<>(rateRule.getDaysOfWeek()))
+                .minOccupancyPercent(rateRule.getMinOccupancyPercent())
+                .multiplier(rateRule.getMultiplier())
+                .build();
+    }
+}
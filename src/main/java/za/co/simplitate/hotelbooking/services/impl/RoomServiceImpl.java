@@ -2,24 +2,30 @@ package za.co.simplitate.hotelbooking.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.dtos.RoomListResponse;
 import za.co.simplitate.hotelbooking.dtos.RoomTO;
 import za.co.simplitate.hotelbooking.entities.Room;
 import za.co.simplitate.hotelbooking.enums.RoomType;
 import za.co.simplitate.hotelbooking.exceptions.NotFoundException;
+import za.co.simplitate.hotelbooking.images.ImageKeys;
+import za.co.simplitate.hotelbooking.images.ImageStore;
 import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
+import za.co.simplitate.hotelbooking.services.RateCalendar;
+import za.co.simplitate.hotelbooking.services.RoomAvailabilityIndex;
+import za.co.simplitate.hotelbooking.services.RoomCatalogue;
+import za.co.simplitate.hotelbooking.services.RoomImagePipeline;
 import za.co.simplitate.hotelbooking.services.RoomService;
 import za.co.simplitate.hotelbooking.util.GenericMapper;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
 
 import static za.co.simplitate.hotelbooking.Const.ROOM_NOT_FOUND;
 import static za.co.simplitate.hotelbooking.Const.SUCCESS;
@@ -32,8 +38,19 @@ public class RoomServiceImpl implements RoomService {
 
     private final RoomsRepository roomsRepository;
 
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
 
-    private static final String  IMAGE_DIR = System.getProperty("user.dir") + "/product-image/";
+    private final RoomCatalogue roomCatalogue;
+
+    private final RateCalendar rateCalendar;
+
+    private final ImageStore imageStore;
+
+    private final RoomImagePipeline roomImagePipeline;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_SEARCH_RESULTS = 50;
 
     @Override
     public Response addRoom(RoomTO roomTO, MultipartFile imageFile) {
@@ -51,6 +68,10 @@ public class RoomServiceImpl implements RoomService {
         }
 
         Room savedRoom = roomsRepository.save(roomEntity);
+        roomCatalogue.onRoomSaved(savedRoom);
+        if (savedRoom.getImageUrl() != null) {
+            roomImagePipeline.onImageStored(savedRoom.getId(), savedRoom.getImageUrl());
+        }
         log.info("addRoom: room saved with id={}", savedRoom.getId());
         return Response.builder()
                 .status(201)
@@ -58,28 +79,47 @@ public class RoomServiceImpl implements RoomService {
                 .build();
     }
 
+    /**
+     * Reads and writes the room under its row lock, so the image variants {@link RoomImagePipeline} records
+     * meanwhile are either read here and kept, or written after this commits, never overwritten with a stale
+     * copy.
+     */
     @Override
     public Response updateRoom(RoomTO roomTO, MultipartFile imageFile) {
         log.info("updateRoom: {}", roomTO);
-        Room existingRoom = roomsRepository.findById(roomTO.id())
-                .orElseThrow(() -> {
-                    var message = String.format(ROOM_NOT_FOUND, roomTO.id());
-                    log.warn(message);
-                    return new NotFoundException(message);
-                });
-
+        String imagePath = null;
         if(imageFile != null && !imageFile.isEmpty()) {
-            String imagePath = "";
             try {
                 imagePath = saveImage(imageFile);
             } catch (Exception e) {
                 throw new IllegalArgumentException(e);
             }
-            existingRoom.setImageUrl(imagePath);
         }
 
-        updateRoom(roomTO, existingRoom);
-        roomsRepository.save(existingRoom);
+        String uploadedPath = imagePath;
+        transactionTemplate.executeWithoutResult(status -> {
+            Room existingRoom = roomsRepository.findRoomForUpdate(roomTO.id())
+                    .orElseThrow(() -> {
+                        var message = String.format(ROOM_NOT_FOUND, roomTO.id());
+                        log.warn(message);
+                        return new NotFoundException(message);
+                    });
+
+            boolean imageChanged = uploadedPath != null && !uploadedPath.equals(existingRoom.getImageUrl());
+            if (imageChanged) {
+                existingRoom.setImageUrl(uploadedPath);
+                existingRoom.setThumbnailUrl(null);
+                existingRoom.setMediumUrl(null);
+                existingRoom.setFullUrl(null);
+            }
+
+            updateRoom(roomTO, existingRoom);
+            // both run once the transaction commits
+            roomCatalogue.onRoomSaved(roomsRepository.save(existingRoom));
+            if (imageChanged) {
+                roomImagePipeline.onImageStored(existingRoom.getId(), existingRoom.getImageUrl());
+            }
+        });
         return Response.builder()
                 .status(204)
                 .message("Room successfully updated.")
@@ -108,35 +148,24 @@ public class RoomServiceImpl implements RoomService {
     }
 
     @Override
-    public Response getAllRooms() {
+    public RoomListResponse getAllRooms() {
         log.info("getAllRooms: ");
-        List<RoomTO> roomTOList;
-        List<Room> roomList = roomsRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-
-        if (!roomList.isEmpty()) {
-            roomTOList = roomList.parallelStream()
-                    .map(GenericMapper::mapToRoomTO)
-                    .toList();
-        } else {
+        List<RoomTO> roomTOList = roomCatalogue.findAll();
+        if (roomTOList.isEmpty()) {
             throw new NotFoundException("No rooms found!!");
         }
-        return Response.builder()
-                .status(200)
-                .message(SUCCESS)
-                .rooms(roomTOList)
-                .build();
+        return new RoomListResponse(200, SUCCESS, roomTOList);
     }
 
     @Override
     public Response getRoomById(Long roomId) {
         log.info("getRoomById: roomId={}", roomId);
-        Room existingRoom = roomsRepository.findById(roomId)
+        RoomTO roomTO = roomCatalogue.findById(roomId)
                 .orElseThrow(() -> {
                     var message = String.format(ROOM_NOT_FOUND, roomId);
                     log.warn(message);
                     return new NotFoundException(message);
                 });
-        RoomTO roomTO = GenericMapper.mapToRoomTO(existingRoom);
         return Response.builder()
                 .status(200)
                 .message(SUCCESS)
@@ -154,6 +183,8 @@ public class RoomServiceImpl implements RoomService {
                     return new NotFoundException(message);
                 });
         roomsRepository.delete(existingRoom);
+        roomAvailabilityIndex.removeRoom(roomId);
+        roomCatalogue.onRoomDeleted(roomId);
         return Response.builder()
                 .status(204)
                 .message("room deleted successfully")
@@ -161,25 +192,35 @@ public class RoomServiceImpl implements RoomService {
     }
 
     @Override
-    public Response getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType) {
-        log.info("getAvailableRooms: checkInDate={} checkOutDate={} roomType={}", checkInDate, checkOutDate, roomType);
+    public RoomListResponse getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType,
+                                      Integer minCapacity) {
+        log.info("getAvailableRooms: checkInDate={} checkOutDate={} roomType={} minCapacity={}", checkInDate,
+                checkOutDate, roomType, minCapacity);
         validateDates(checkInDate, checkOutDate);
-        List<Room> roomList = roomsRepository.findAvailableRooms(roomType);
-//        List<Room> roomList = roomsRepository.findAvailableRooms(checkInDate, checkOutDate, roomType);
 
-        List<RoomTO> roomTOList;
-        if (!roomList.isEmpty()) {
-            roomTOList = roomList.parallelStream()
-                    .map(GenericMapper::mapToRoomTO)
+        List<RoomTO> available;
+        if (roomAvailabilityIndex.covers(checkInDate, checkOutDate)) {
+            available = roomCatalogue.findByTypeAndCapacity(roomType, minCapacity).stream()
+                    .filter(room -> roomAvailabilityIndex.isAvailable(room.id(), checkInDate, checkOutDate))
                     .toList();
         } else {
+            log.info("getAvailableRooms: dates outside availability index horizon, checking database");
+            available = roomsRepository.findAvailableRooms(checkInDate, checkOutDate, roomType, minCapacity)
+                    .stream()
+                    .map(GenericMapper::mapToRoomTO)
+                    .toList();
+        }
+        List<RoomTO> roomTOList = available.stream()
+                .map(room -> room.toBuilder()
+                        .totalPrice(rateCalendar.price(room.roomType(), room.pricePerNight(), checkInDate,
+                                checkOutDate))
+                        .build())
+                .toList();
+
+        if (roomTOList.isEmpty()) {
             throw new NotFoundException("No rooms found!!");
         }
-        return Response.builder()
-                .status(200)
-                .message(SUCCESS)
-                .rooms(roomTOList)
-                .build();
+        return new RoomListResponse(200, SUCCESS, roomTOList);
     }
 
     @Override
@@ -189,15 +230,10 @@ public class RoomServiceImpl implements RoomService {
     }
 
     @Override
-    public Response searchRoom(String input) {
-        log.info("searchRoom: input={}", input);
-        List<Room> roomList = roomsRepository.findByDescription(input);
-        List<RoomTO> roomTOList;
-        if (!roomList.isEmpty()) {
-            roomTOList = roomList.parallelStream()
-                    .map(GenericMapper::mapToRoomTO)
-                    .toList();
-        } else {
+    public Response searchRoom(String input, RoomType roomType, Integer minCapacity) {
+        log.info("searchRoom: input={} roomType={} minCapacity={}", input, roomType, minCapacity);
+        List<RoomTO> roomTOList = roomCatalogue.search(input, roomType, minCapacity, MAX_SEARCH_RESULTS);
+        if (roomTOList.isEmpty()) {
             throw new NotFoundException("No rooms found!!");
         }
         return Response.builder()
@@ -211,13 +247,8 @@ public class RoomServiceImpl implements RoomService {
     public Response getRoomsByType(RoomType roomType) {
         log.info("getRoomsByType: roomType={}", roomType);
 
-        List<Room> roomList = roomsRepository.findRoomByRoomType(roomType);
-        List<RoomTO> roomTOList;
-        if (!roomList.isEmpty()) {
-            roomTOList = roomList.parallelStream()
-                    .map(GenericMapper::mapToRoomTO)
-                    .toList();
-        } else {
+        List<RoomTO> roomTOList = roomCatalogue.findByType(roomType);
+        if (roomTOList.isEmpty()) {
             throw new NotFoundException("No rooms found!!");
         }
         return Response.builder()
@@ -227,35 +258,16 @@ public class RoomServiceImpl implements RoomService {
                 .build();
     }
 
-    private String saveImage(MultipartFile imageFile) throws Exception {
-        log.info("saveImage: ");
-        if (!imageFile.getContentType().startsWith("image/")) {
-            log.error("saveImage: not an image");
-           throw new IllegalArgumentException("Only image file allowed!!");
-        }
-
-        // create directory if it doesn't exist
-        File dir = new File(IMAGE_DIR);
-        if(!dir.exists()) {
-            if (dir.mkdir()) {
-                log.debug("Directory created");
-            } else {
-                log.warn("Could not create directory");
-            }
-        }
-
-        //generate unique filename for image
-        String fileName = UUID.randomUUID() + "_" + imageFile.getOriginalFilename();
-        String imagePath = IMAGE_DIR + fileName;
+    @Override
+    public RoomCatalogue.Version getRoomsVersion() {
+        return roomCatalogue.version();
+    }
 
-        try {
-            File destinationFile = new File(imagePath);
-            imageFile.transferTo(destinationFile);
-        } catch (IOException | IllegalArgumentException ex) {
-            log.error("saveImage: error while saving an image");
-            throw new IllegalArgumentException(ex.getMessage());
+    private String saveImage(MultipartFile imageFile) throws IOException {
+        log.info("saveImage: size={} contentType={}", imageFile.getSize(), imageFile.getContentType());
+        try (InputStream content = imageFile.getInputStream()) {
+            String key = imageStore.store(content, imageFile.getSize(), imageFile.getContentType());
+            return ImageKeys.URL_PREFIX + key;
         }
-
-        return imagePath;
     }
 }
@@ -0,0 +1,144 @@
+package za.co.simplitate.hotelbooking.services.impl;
+
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.entities.RefreshToken;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.exceptions.InvalidCredentialsException;
+import za.co.simplitate.hotelbooking.repositories.RefreshTokenRepository;
+import za.co.simplitate.hotelbooking.security.JWTUtils;
+import za.co.simplitate.hotelbooking.security.TokenRevocations;
+import za.co.simplitate.hotelbooking.services.TokenService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens and revokes access tokens. Refresh tokens are random values stored
+ * only as their SHA-256; every refresh uses one up and returns its successor, and a token presented after
+ * it was used means it leaked, so its whole family is deleted.
+ */
+@Service
+@Slf4j
+public class TokenServiceImpl implements TokenService {
+
+    public static final String INVALID_REFRESH_TOKEN = "Invalid or expired refresh token";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JWTUtils jwtUtils;
+    private final TokenRevocations tokenRevocations;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public TokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                            JWTUtils jwtUtils,
+                            TokenRevocations tokenRevocations,
+                            @Value("${security.jwt.refresh-token-ttl-days:30}") long refreshTokenTtlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtUtils = jwtUtils;
+        this.tokenRevocations = tokenRevocations;
+        this.refreshTokenTtl = Duration.ofDays(refreshTokenTtlDays);
+    }
+
+    @Override
+    public String createRefreshToken(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public Response refresh(String refreshToken) {
+        log.info("refresh: ");
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new InvalidCredentialsException(INVALID_REFRESH_TOKEN));
+        Instant now = Instant.now();
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+        if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            log.warn("refresh: used refresh token presented again, ending session of user {}",
+                    current.getUser().getId());
+            refreshTokenRepository.deleteFamily(current.getFamilyId());
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+        User user = current.getUser();
+        return Response.builder()
+                .status(200)
+                .message("Token refreshed successfully")
+                .token(jwtUtils.generateToken(user))
+                .refreshToken(issue(user, current.getFamilyId()))
+                .expirationTime(jwtUtils.getExpirationTime())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public Response logout(String accessToken, String refreshToken) {
+        log.info("logout: ");
+        if (accessToken != null) {
+            try {
+                tokenRevocations.revoke(jwtUtils.parseToken(accessToken));
+            } catch (JwtException e) {
+                log.debug("logout: access token already invalid: {}", e.getMessage());
+            }
+        }
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.deleteFamily(token.getFamilyId()));
+        return Response.builder()
+                .status(200)
+                .message("Logged out successfully")
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(User user) {
+        log.info("revokeAll: userId={}", user.getId());
+        refreshTokenRepository.deleteByUserId(user.getId());
+        tokenRevocations.revokeSubject(user.getEmail());
+    }
+
+    @Scheduled(cron = "${security.jwt.refresh-token-cleanup-cron:0 30 3 * * *}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        log.info("deleteExpired: removed {} expired refresh tokens", deleted);
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = Instant.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .user(user)
+                .createdAt(now)
+                .expiresAt(now.plus(refreshTokenTtl))
+                .build());
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package za.co.simplitate.hotelbooking.services.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import za.co.simplitate.hotelbooking.dtos.*;
@@ -14,12 +13,16 @@ import za.co.simplitate.hotelbooking.exceptions.InvalidCredentialsException;
 import za.co.simplitate.hotelbooking.exceptions.NotFoundException;
 import za.co.simplitate.hotelbooking.repositories.BookingRepository;
 import za.co.simplitate.hotelbooking.repositories.UserRepository;
+import za.co.simplitate.hotelbooking.security.CurrentUser;
 import za.co.simplitate.hotelbooking.security.JWTUtils;
+import za.co.simplitate.hotelbooking.security.PrincipalCache;
+import za.co.simplitate.hotelbooking.services.TokenService;
 import za.co.simplitate.hotelbooking.services.UserService;
 import za.co.simplitate.hotelbooking.util.GenericMapper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static za.co.simplitate.hotelbooking.Const.SUCCESS;
 
@@ -37,7 +40,12 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final JWTUtils jwtUtils;
     private final BookingRepository bookingRepository;
+    private final PrincipalCache principalCache;
+    private final TokenService tokenService;
+    private final CurrentUser currentUser;
 
+    /** Hash checked for unknown emails, so they cost as much as a wrong password. */
+    private volatile String unknownUserHash;
 
     @Override
     public Response registerUser(RegistrationRequest registrationRequest) {
@@ -68,26 +76,42 @@ public class UserServiceImpl implements UserService {
         log.info("loginUser: ");
         User user = userRepository.findByEmail(loginRequest.email())
                 .orElseThrow(() -> {
-                    var message = String.format(USER_EMAIL_NOT_FOUND, loginRequest.email());
-                    log.warn(message);
-                    return new NotFoundException(message);
+                    passwordEncoder.matches(loginRequest.password(), unknownUserHash());
+                    log.warn(String.format(USER_EMAIL_NOT_FOUND, loginRequest.email()));
+                    // same answer as a wrong password, so neither timing nor status tells whether the account exists
+                    return new InvalidCredentialsException(PASSWORD_DOES_NOT_MATCH);
                 });
 
         if(!passwordEncoder.matches(loginRequest.password(), user.getPassword())) {
             throw new InvalidCredentialsException(PASSWORD_DOES_NOT_MATCH);
         }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            log.info("loginUser: re-hashing password of user {} with the current encoding", user.getId());
+            user.setPassword(passwordEncoder.encode(loginRequest.password()));
+            userRepository.save(user);
+        }
 
-        String token = jwtUtils.generateToken(user.getEmail());
+        String token = jwtUtils.generateToken(user);
         return Response.builder()
                 .status(200)
                 .message(LOGGED_IN_SUCCESSFULLY)
                 .role(user.getRole())
                 .token(token)
+                .refreshToken(tokenService.createRefreshToken(user))
                 .active(user.isActive())
-                .expirationTime("6 months")
+                .expirationTime(jwtUtils.getExpirationTime())
                 .build();
     }
 
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+
     @Override
     public Response getAllUsers() {
         log.info("getAllUsers: ");
@@ -110,13 +134,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public Response getOwnAccountDetails() {
         log.info("getOwnAccountDetails: ");
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    var message = String.format(USER_EMAIL_NOT_FOUND, email);
-                    log.warn(message);
-                    return new NotFoundException(message);
-                });
+        User user = currentUser.get();
         UserTO userTO = GenericMapper.mapToUserTO(user);
         return Response.builder()
                 .status(200)
@@ -128,19 +146,14 @@ public class UserServiceImpl implements UserService {
     @Override
     public User getCurrentLoggedInUser() {
         log.info("getCurrentLoggedInUser: ");
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    var message = String.format(USER_EMAIL_NOT_FOUND, email);
-                    log.warn(message);
-                    return new NotFoundException(message);
-                });
+        return currentUser.get();
     }
 
     @Override
     public Response updateOwnAccount(UserTO userTO) {
         log.info("updateOwnAccount: ");
         User user = getCurrentLoggedInUser();
+        String currentEmail = user.getEmail();
 
         if(userTO.email() != null)
             user.setEmail(userTO.email());
@@ -154,6 +167,7 @@ public class UserServiceImpl implements UserService {
             user.setPassword(passwordEncoder.encode(userTO.password()));
 
         userRepository.save(user);
+        principalCache.evictUser(currentEmail);
         return Response.builder()
                 .status(200)
                 .message("User updated successfully!!")
@@ -164,8 +178,8 @@ public class UserServiceImpl implements UserService {
     @Override
     public Response getBookingHistory() {
         log.info("getBookingHistory: ");
-        User user = getCurrentLoggedInUser();
-        List<Booking> bookingList = bookingRepository.findBookingsByUser(user);
+        // the query only needs the id, and fetches each booking's user itself
+        List<Booking> bookingList = bookingRepository.findBookingsByUser(currentUser.reference());
         List<BookingTO> bookingTOList = new ArrayList<>();
         if(!bookingList.isEmpty()) {
             bookingTOList = bookingList.stream().map(GenericMapper::mapToBookingTO).toList();
@@ -181,7 +195,9 @@ public class UserServiceImpl implements UserService {
     public Response deleteOwnAccount() {
         log.info("deleteOwnAccount: ");
         User user = getCurrentLoggedInUser();
+        tokenService.revokeAll(user);
         userRepository.delete(user);
+        principalCache.evictUser(user.getEmail());
         return Response.builder()
                 .status(200)
                 .message("User deleted successfully!!")
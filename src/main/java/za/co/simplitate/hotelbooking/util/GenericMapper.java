@@ -1,13 +1,20 @@
 package za.co.simplitate.hotelbooking.util;
 
 import za.co.simplitate.hotelbooking.dtos.BookingTO;
+import za.co.simplitate.hotelbooking.dtos.RateRuleTO;
+import za.co.simplitate.hotelbooking.dtos.RoomSummaryTO;
 import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.dtos.UserSummaryTO;
 import za.co.simplitate.hotelbooking.dtos.UserTO;
 import za.co.simplitate.hotelbooking.entities.Booking;
+import za.co.simplitate.hotelbooking.entities.RateRule;
 import za.co.simplitate.hotelbooking.entities.Room;
 import za.co.simplitate.hotelbooking.entities.User;
 import za.co.simplitate.hotelbooking.enums.UserRole;
 
+import java.util.HashSet;
+import java.util.Set;
+
 public class GenericMapper {
 
     private GenericMapper() {}
@@ -32,7 +39,8 @@ public class GenericMapper {
 
     public static RoomTO mapToRoomTO(Room room) {
         return new RoomTO(room.getId(), room.getRoomNumber(), room.getRoomType(), room.getPricePerNight(),
-                room.getCapacity(), room.getDescription(), room.getImageUrl());
+                room.getCapacity(), room.getDescription(), room.getImageUrl(), room.getThumbnailUrl(),
+                room.getMediumUrl(), room.getFullUrl(), null);
     }
 
     public static Room mapToRoom(RoomTO roomTO) {
@@ -47,8 +55,28 @@ public class GenericMapper {
                 .build();
     }
 
+    public static RateRuleTO mapToRateRuleTO(RateRule rateRule) {
+        return new RateRuleTO(rateRule.getId(), rateRule.getName(), rateRule.getRoomType(),
+                rateRule.getStartDate(), rateRule.getEndDate(), Set.copyOf(rateRule.getDaysOfWeek()),
+                rateRule.getMinOccupancyPercent(), rateRule.getMultiplier());
+    }
+
+    public static RateRule mapToRateRule(RateRuleTO rateRuleTO) {
+        return RateRule.builder()
+                .id(rateRuleTO.id())
+                .name(rateRuleTO.name())
+                .roomType(rateRuleTO.roomType())
+                .startDate(rateRuleTO.startDate())
+                .endDate(rateRuleTO.endDate())
+                .daysOfWeek(rateRuleTO.daysOfWeek() != null ? new HashSet<>(rateRuleTO.daysOfWeek()) : new HashSet<>())
+                .minOccupancyPercent(rateRuleTO.minOccupancyPercent())
+                .multiplier(rateRuleTO.multiplier())
+                .build();
+    }
+
     public static BookingTO mapToBookingTO(Booking booking) {
-        return new BookingTO(booking.getId(), booking.getUser(), booking.getRoom(),
+        return new BookingTO(booking.getId(), mapToUserSummaryTO(booking.getUser()),
+                mapToRoomSummaryTO(booking.getRoom()),
                 booking.getPaymentStatus(), booking.getCheckInDate(), booking.getCheckOutDate(),
                 booking.getTotalPrice(), booking.getBookingReference(), booking.getCreatedAt(),
                 booking.getBookingStatus());
@@ -60,11 +88,17 @@ public class GenericMapper {
                 booking.getCreatedAt(), booking.getBookingStatus());
     }
 
+    public static UserSummaryTO mapToUserSummaryTO(User user) {
+        return user != null ? new UserSummaryTO(user.getId(), user.getFirstName(), user.getLastName()) : null;
+    }
+
+    public static RoomSummaryTO mapToRoomSummaryTO(Room room) {
+        return room != null ? new RoomSummaryTO(room.getId(), room.getRoomNumber(), room.getRoomType()) : null;
+    }
+
     public static Booking mapToBooking(BookingTO bookingTO) {
         return Booking.builder()
                 .id(bookingTO.id())
-                .user(bookingTO.user())
-                .room(bookingTO.room())
                 .paymentStatus(bookingTO.paymentStatus())
                 .checkInDate(bookingTO.checkInDate())
                 .checkOutDate(bookingTO.checkOutDate())
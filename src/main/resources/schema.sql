@@ -1 +1,9 @@
 create schema hotel;
+
+-- availability lookups: bookings overlapping a date range for a room
+create index if not exists idx_bookings_room_dates_status
+    on bookings (room_id, check_in_date, check_out_date, booking_status);
+
+-- booking references are unique by construction (see BookingCodeGenerator); this is the safety net
+create unique index if not exists uk_bookings_booking_reference
+    on bookings (booking_reference);
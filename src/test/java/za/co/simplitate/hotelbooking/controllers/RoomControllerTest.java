@@ -0,0 +1,88 @@
+package za.co.simplitate.hotelbooking.controllers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import za.co.simplitate.hotelbooking.dtos.RoomListResponse;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.services.RoomCatalogue;
+import za.co.simplitate.hotelbooking.services.RoomService;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomControllerTest {
+
+    private static final RoomCatalogue.Version VERSION =
+            new RoomCatalogue.Version("0f1e2d3c4b5a69788796a5b4c3d2e1f0", Instant.parse("2026-01-01T10:00:00Z"));
+
+    @Mock
+    private RoomService roomService;
+
+    @InjectMocks
+    private RoomController roomController;
+
+    @Test
+    @DisplayName("getAllRooms - tags the body with the catalogue version")
+    void getAllRooms() {
+        when(roomService.getRoomsVersion()).thenReturn(VERSION);
+        when(roomService.getAllRooms()).thenReturn(new RoomListResponse(200, "success", List.of()));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<RoomListResponse> response = roomController.getAllRooms(
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/rooms/all"), servletResponse));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("no-cache, public", response.getHeaders().getCacheControl());
+        assertEquals(VERSION.etag(), servletResponse.getHeader(HttpHeaders.ETAG));
+        assertEquals(VERSION.modifiedAt().toEpochMilli(), servletResponse.getDateHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    @DisplayName("getAllRooms - matching ETag is answered 304 without reading rooms")
+    void getAllRooms_notModified() {
+        when(roomService.getRoomsVersion()).thenReturn(VERSION);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rooms/all");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, VERSION.etag());
+
+        ResponseEntity<RoomListResponse> response = roomController.getAllRooms(
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(roomService, never()).getAllRooms();
+    }
+
+    @Test
+    @DisplayName("getRoomTypes - static list is cacheable and revalidates by ETag")
+    void getRoomTypes() {
+        when(roomService.getAllRoomTypes()).thenReturn(Arrays.asList(RoomType.values()));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ResponseEntity<List<RoomType>> fresh = roomController.getRoomTypes(
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/rooms/types"), first));
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/rooms/types");
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+
+        ResponseEntity<List<RoomType>> cached = roomController.getRoomTypes(
+                new ServletWebRequest(revalidation, new MockHttpServletResponse()));
+
+        assertEquals("max-age=86400, public", fresh.getHeaders().getCacheControl());
+        assertEquals(HttpStatus.NOT_MODIFIED, cached.getStatusCode());
+        verify(roomService, times(1)).getAllRoomTypes();
+        verifyNoMoreInteractions(roomService);
+    }
+}
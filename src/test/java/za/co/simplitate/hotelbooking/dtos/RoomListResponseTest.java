@@ -0,0 +1,34 @@
+package za.co.simplitate.hotelbooking.dtos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomListResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("serialize - renders exactly what Response renders for a room listing")
+    void serializeMatchesResponse() throws Exception {
+        List<RoomTO> rooms = List.of(
+                new RoomTO(1L, 101, RoomType.SUITE, new BigDecimal("1250.50"), 4, "Sea view suite",
+                        "/api/images/a.png", "/api/images/t.jpg", "/api/images/m.jpg", "/api/images/f.jpg",
+                        new BigDecimal("2501.00")),
+                RoomTO.builder().id(2L).roomType(RoomType.SINGLE).build());
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsString(
+                Response.builder().status(200).message("success").rooms(rooms).build()));
+
+        JsonNode actual = objectMapper.readTree(objectMapper.writeValueAsString(
+                new RoomListResponse(200, "success", rooms)));
+
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,117 @@
+package za.co.simplitate.hotelbooking.images;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import za.co.simplitate.hotelbooking.controllers.ImageController;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemImageStoreTest {
+
+    private static final byte[] IMAGE = "not really a png, but bytes are bytes".getBytes();
+
+    @TempDir
+    Path root;
+
+    private FileSystemImageStore imageStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageStore = new FileSystemImageStore(root);
+    }
+
+    @Test
+    @DisplayName("store - identical content is stored once under its hash")
+    void storeDeduplicates() throws IOException {
+        String first = store(IMAGE, "image/png");
+        String second = store(IMAGE, "image/png");
+
+        assertEquals(first, second);
+        assertTrue(ImageKeys.isValid(first));
+        assertTrue(first.endsWith(".png"));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("store - rejects non-image content types")
+    void storeRejectsNonImage() {
+        assertThrows(IllegalArgumentException.class, () -> store(IMAGE, "application/pdf"));
+    }
+
+    @Test
+    @DisplayName("find - unknown and malformed keys are not found")
+    void findMissing() throws IOException {
+        assertTrue(imageStore.find("0".repeat(64) + ".png").isEmpty());
+        assertTrue(imageStore.find("../../etc/passwd").isEmpty());
+    }
+
+    @Test
+    @DisplayName("writeTo - copies the requested byte range")
+    void writeToRange() throws IOException {
+        String key = store(IMAGE, "image/png");
+        StoredImage image = imageStore.find(key).orElseThrow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        image.writeTo(4, 6, out);
+
+        assertEquals(IMAGE.length, image.length());
+        assertArrayEquals(Arrays.copyOfRange(IMAGE, 4, 10), out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("getImage - serves a byte range with a strong ETag")
+    void getImageRange() throws IOException {
+        String key = store(IMAGE, "image/png");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ImageKeys.URL_PREFIX + key);
+        request.addHeader("Range", "bytes=4-9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ImageController(imageStore).getImage(key, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 4-9/" + IMAGE.length, response.getHeader("Content-Range"));
+        assertEquals("\"" + ImageKeys.hash(key) + "\"", response.getHeader("ETag"));
+        assertEquals("image/png", response.getContentType());
+        assertArrayEquals(Arrays.copyOfRange(IMAGE, 4, 10), response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("getImage - matching If-None-Match is not modified, bad range is unsatisfiable")
+    void getImageConditional() throws IOException {
+        String key = store(IMAGE, "image/png");
+        ImageController controller = new ImageController(imageStore);
+
+        MockHttpServletRequest cached = new MockHttpServletRequest();
+        cached.addHeader("If-None-Match", "\"" + ImageKeys.hash(key) + "\"");
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        controller.getImage(key, cached, notModified);
+
+        MockHttpServletRequest outOfRange = new MockHttpServletRequest();
+        outOfRange.addHeader("Range", "bytes=1000-");
+        MockHttpServletResponse unsatisfiable = new MockHttpServletResponse();
+        controller.getImage(key, outOfRange, unsatisfiable);
+
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */" + IMAGE.length, unsatisfiable.getHeader("Content-Range"));
+    }
+
+    private String store(byte[] content, String contentType) throws IOException {
+        return imageStore.store(new ByteArrayInputStream(content), content.length, contentType);
+    }
+}
@@ -0,0 +1,51 @@
+package za.co.simplitate.hotelbooking.images;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a local MinIO, e.g. {@code docker run -p 9000:9000 minio/minio server /data} with a
+ * {@code room-images} bucket, and {@code MINIO_ENDPOINT=http://localhost:9000}.
+ */
+@EnabledIfEnvironmentVariable(named = "MINIO_ENDPOINT", matches = ".+")
+class S3ImageStoreTest {
+
+    private static final byte[] IMAGE = "jpeg bytes for the s3 store".getBytes();
+
+    private S3ImageStore imageStore;
+
+    @BeforeEach
+    void setUp() {
+        imageStore = new S3ImageStore(
+                Objects.requireNonNullElse(System.getenv("MINIO_BUCKET"), "room-images"),
+                "us-east-1",
+                System.getenv("MINIO_ENDPOINT"),
+                Objects.requireNonNullElse(System.getenv("MINIO_ACCESS_KEY"), "minioadmin"),
+                Objects.requireNonNullElse(System.getenv("MINIO_SECRET_KEY"), "minioadmin"));
+    }
+
+    @Test
+    @DisplayName("store - deduplicates by content and reads back byte ranges")
+    void storeAndRead() throws IOException {
+        String first = imageStore.store(new ByteArrayInputStream(IMAGE), IMAGE.length, "image/jpeg");
+        String second = imageStore.store(new ByteArrayInputStream(IMAGE), IMAGE.length, "image/jpeg");
+        StoredImage image = imageStore.find(first).orElseThrow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        image.writeTo(5, 5, out);
+
+        assertEquals(first, second);
+        assertEquals(IMAGE.length, image.length());
+        assertTrue(image.localPath().isEmpty());
+        assertArrayEquals(Arrays.copyOfRange(IMAGE, 5, 10), out.toByteArray());
+    }
+}
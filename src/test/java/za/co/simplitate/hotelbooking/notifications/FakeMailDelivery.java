@@ -0,0 +1,32 @@
+package za.co.simplitate.hotelbooking.notifications;
+
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory MailDelivery that records sent messages and fails for chosen recipients.
+ */
+class FakeMailDelivery implements MailDelivery {
+
+    final List<SimpleMailMessage> sent = new CopyOnWriteArrayList<>();
+    final Set<String> failingRecipients = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public List<Exception> send(List<SimpleMailMessage> messages) {
+        return messages.stream().map(this::send).toList();
+    }
+
+    private Exception send(SimpleMailMessage message) {
+        String recipient = message.getTo()[0];
+        if (failingRecipients.contains(recipient)) {
+            return new MailSendException("mailbox unavailable: " + recipient);
+        }
+        sent.add(message);
+        return null;
+    }
+}
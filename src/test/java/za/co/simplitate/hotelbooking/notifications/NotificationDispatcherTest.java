@@ -0,0 +1,104 @@
+package za.co.simplitate.hotelbooking.notifications;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.co.simplitate.hotelbooking.entities.Notification;
+import za.co.simplitate.hotelbooking.enums.NotificationStatus;
+import za.co.simplitate.hotelbooking.repositories.NotificationRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final FakeMailDelivery mailDelivery = new FakeMailDelivery();
+
+    private NotificationDispatcher notificationDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(notificationRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        notificationDispatcher = new NotificationDispatcher(notificationRepository, mailDelivery,
+                transactionTemplate, Executors.newFixedThreadPool(2), 10, 3, 3, 30);
+    }
+
+    @Test
+    @DisplayName("dispatch - sends every pending notification and marks it sent")
+    void testDispatch_sendsBatch() {
+        List<Notification> pending = LongStream.rangeClosed(1, 7)
+                .mapToObj(id -> pendingNotification(id, "guest" + id + "@test", 0))
+                .toList();
+        when(notificationRepository.findDueForDispatch(any(), anyInt())).thenReturn(pending);
+
+        notificationDispatcher.dispatch();
+
+        assertEquals(7, mailDelivery.sent.size());
+        pending.forEach(notification -> {
+            assertEquals(NotificationStatus.SENT, notification.getStatus());
+            assertEquals(1, notification.getAttempts());
+            assertNotNull(notification.getSentAt());
+        });
+    }
+
+    @Test
+    @DisplayName("dispatch - failed sends are retried later, then marked failed")
+    void testDispatch_retriesWithBackoff() {
+        mailDelivery.failingRecipients.add("bounce@test");
+        Notification firstFailure = pendingNotification(1L, "bounce@test", 0);
+        Notification lastFailure = pendingNotification(2L, "bounce@test", 2);
+        when(notificationRepository.findDueForDispatch(any(), anyInt())).thenReturn(List.of(firstFailure, lastFailure));
+
+        notificationDispatcher.dispatch();
+
+        assertTrue(mailDelivery.sent.isEmpty());
+        assertEquals(NotificationStatus.PENDING, firstFailure.getStatus());
+        assertTrue(firstFailure.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+        assertNotNull(firstFailure.getLastError());
+        assertEquals(NotificationStatus.FAILED, lastFailure.getStatus());
+        assertEquals(3, lastFailure.getAttempts());
+    }
+
+    @Test
+    @DisplayName("dispatch - nothing due, nothing sent")
+    void testDispatch_empty() {
+        when(notificationRepository.findDueForDispatch(any(), anyInt())).thenReturn(List.of());
+
+        notificationDispatcher.dispatch();
+
+        assertTrue(mailDelivery.sent.isEmpty());
+        verify(notificationRepository, times(1)).saveAll(any());
+    }
+
+    private static Notification pendingNotification(Long id, String recipient, int attempts) {
+        return Notification.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("BOOKING CONFIRMATION")
+                .body("Your booking has been successfully created.")
+                .status(NotificationStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package za.co.simplitate.hotelbooking.notifications;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledSmtpMailDeliveryTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("hotel@test", "secret"));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PooledSmtpMailDelivery mailDelivery;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(greenMail.getSmtp().getPort());
+        javaMailSender.setUsername("hotel@test");
+        javaMailSender.setPassword("secret");
+        Properties properties = new Properties();
+        properties.put("mail.smtp.auth", "true");
+        javaMailSender.setJavaMailProperties(properties);
+        mailDelivery = new PooledSmtpMailDelivery(javaMailSender, meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailDelivery.destroy();
+    }
+
+    @Test
+    @DisplayName("send - batches reuse at most pool-size connections")
+    void testSend_reusesConnections() {
+        List<CompletableFuture<List<Exception>>> batches = IntStream.range(0, 10)
+                .mapToObj(batch -> CompletableFuture.supplyAsync(() -> mailDelivery.send(messages(batch, 5))))
+                .toList();
+
+        batches.forEach(batch -> assertTrue(batch.join().stream().allMatch(result -> result == null)));
+        assertEquals(50, greenMail.getReceivedMessages().length);
+        assertTrue(meterRegistry.counter("notifications.smtp.connections").count() <= 2);
+        assertEquals(10, meterRegistry.timer("notifications.smtp.batch").count());
+        assertEquals(50, meterRegistry.counter("notifications.smtp.messages", "result", "sent").count());
+    }
+
+    @Test
+    @DisplayName("send - reconnects after the server drops the connection")
+    void testSend_reconnects() {
+        assertNull(mailDelivery.send(messages(0, 1)).get(0));
+        greenMail.reset();
+        greenMail.setUser("hotel@test", "hotel@test", "secret");
+
+        assertNull(mailDelivery.send(messages(1, 1)).get(0));
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    private static List<SimpleMailMessage> messages(int batch, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    SimpleMailMessage message = new SimpleMailMessage();
+                    message.setFrom("hotel@test");
+                    message.setTo("guest" + batch + "-" + i + "@test");
+                    message.setSubject("BOOKING CONFIRMATION");
+                    message.setText("Your booking has been successfully created.");
+                    return message;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,76 @@
+package za.co.simplitate.hotelbooking.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRateLimitBackendTest {
+
+    private final LocalRateLimitBackend backend = new LocalRateLimitBackend();
+
+    @Test
+    @DisplayName("tryConsume - allows the burst, then reports the wait for the next token")
+    void burstThenWait() throws InterruptedException {
+        // a token every 100ms
+        RateLimitRule rule = new RateLimitRule("test", "/", 3, 600);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, backend.tryConsume("ip:1", rule));
+        }
+        long wait = backend.tryConsume("ip:1", rule);
+
+        assertTrue(wait > 0 && wait <= rule.intervalNanos(), "wait " + wait);
+        assertEquals(0, backend.tryConsume("ip:2", rule));
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, backend.tryConsume("ip:1", rule));
+        assertTrue(backend.tryConsume("ip:1", rule) > 0);
+    }
+
+    @Test
+    @DisplayName("tryConsume - concurrent requests never take more than the capacity")
+    void concurrent() throws InterruptedException {
+        RateLimitRule rule = new RateLimitRule("test", "/", 50, 1);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (backend.tryConsume("user:1", rule) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, allowed.get());
+    }
+
+    @Test
+    @DisplayName("evictIdle - drops buckets that have refilled, keeps the rest")
+    void evictIdle() throws InterruptedException {
+        RateLimitRule fast = new RateLimitRule("fast", "/", 1, 60_000);
+        RateLimitRule slow = new RateLimitRule("slow", "/", 1, 1);
+        backend.tryConsume("fast:ip:1", fast);
+        backend.tryConsume("slow:ip:1", slow);
+        TimeUnit.MILLISECONDS.sleep(5);
+
+        backend.evictIdle();
+
+        assertEquals(1, backend.size());
+        assertTrue(backend.tryConsume("slow:ip:1", slow) > 0);
+    }
+}
@@ -0,0 +1,93 @@
+package za.co.simplitate.hotelbooking.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+import za.co.simplitate.hotelbooking.security.JwtPrincipal;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RateLimitFilter rateLimitFilter = new RateLimitFilter(new LocalRateLimitBackend(),
+            List.of(new RateLimitRule("auth", "/api/auth/", 2, 1), new RateLimitRule("bookings", "/api/bookings/", 3, 1)),
+            new ObjectMapper(), meterRegistry, true);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("doFilter - empty bucket answers 429 with Retry-After and skips the chain")
+    void rejectsWhenEmpty() throws Exception {
+        assertEquals(200, filter("/api/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, filter("/api/auth/login", "10.0.0.1").getStatus());
+
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse rejected = filter("/api/auth/login", "10.0.0.1", chain);
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("60", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+        verify(chain, never()).doFilter(any(), any());
+        assertEquals(1, meterRegistry.counter("rate-limit.rejected", "rule", "auth").count());
+    }
+
+    @Test
+    @DisplayName("doFilter - buckets are per IP, per user when authenticated, and only for matching routes")
+    void keys() throws Exception {
+        filter("/api/auth/login", "10.0.0.1");
+        filter("/api/auth/login", "10.0.0.1");
+
+        assertEquals(200, filter("/api/auth/login", "10.0.0.2").getStatus());
+        assertEquals(200, filter("/api/users/account", "10.0.0.1").getStatus());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(7L, "john@email.com", UserRole.CUSTOMER), null, List.of()));
+        assertEquals(200, filter("/api/auth/refresh", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    @DisplayName("doFilter - POST to the bare collection path is limited by its prefix rule")
+    void limitsCollectionPath() throws Exception {
+        MockHttpServletResponse response = filter("/api/bookings", "10.0.0.3");
+        int allowed = 0;
+        while (response.getStatus() == 200 && allowed < 10) {
+            allowed++;
+            response = filter("/api/bookings", "10.0.0.3");
+        }
+
+        assertEquals(3, allowed);
+        assertEquals(429, response.getStatus());
+        assertEquals("60", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.counter("rate-limit.rejected", "rule", "bookings").count());
+        assertFalse(new RateLimitRule("bookings", "/api/bookings/", 3, 1).matches("/api/bookingsearch"));
+    }
+
+    private MockHttpServletResponse filter(String path, String ip) throws Exception {
+        return filter(path, ip, mock(FilterChain.class));
+    }
+
+    private MockHttpServletResponse filter(String path, String ip, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,69 @@
+package za.co.simplitate.hotelbooking.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RedisRateLimitBackendTest {
+
+    private final RateLimitRule rule = new RateLimitRule("test", "/", 2, 1);
+
+    /**
+     * Runs against a local Redis, e.g. {@code docker run -p 6379:6379 redis:7} and {@code REDIS_HOST=localhost}.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+    @DisplayName("tryConsume - buckets in Redis are shared by every backend instance")
+    void sharedBucket() {
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration(System.getenv("REDIS_HOST")));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            String key = "ip:" + UUID.randomUUID();
+            RedisRateLimitBackend backend = new RedisRateLimitBackend(new StringRedisTemplate(connectionFactory),
+                    new LocalRateLimitBackend(), 5000);
+            RedisRateLimitBackend otherNode = new RedisRateLimitBackend(new StringRedisTemplate(connectionFactory),
+                    new LocalRateLimitBackend(), 5000);
+
+            assertEquals(0, backend.tryConsume(key, rule));
+            assertEquals(0, otherNode.tryConsume(key, rule));
+            long wait = backend.tryConsume(key, rule);
+
+            assertTrue(wait > 0 && wait <= rule.intervalNanos(), "wait " + wait);
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("tryConsume - after Redis fails, limits on this node without calling Redis until the retry")
+    @SuppressWarnings("unchecked")
+    void skipsRedisAfterFailure() throws Exception {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(0L);
+        RedisRateLimitBackend backend = new RedisRateLimitBackend(redisTemplate, new LocalRateLimitBackend(), 50);
+
+        assertEquals(0, backend.tryConsume("ip:a", rule));
+        assertEquals(0, backend.tryConsume("ip:a", rule));
+        assertTrue(backend.tryConsume("ip:a", rule) > 0, "the local bucket holds two tokens");
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+
+        Thread.sleep(60);
+        assertEquals(0, backend.tryConsume("ip:b", rule));
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+}
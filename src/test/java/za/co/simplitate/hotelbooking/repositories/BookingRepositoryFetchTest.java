@@ -0,0 +1,148 @@
+package za.co.simplitate.hotelbooking.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import za.co.simplitate.hotelbooking.dtos.BookingTO;
+import za.co.simplitate.hotelbooking.entities.Booking;
+import za.co.simplitate.hotelbooking.entities.Room;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.enums.BookingStatus;
+import za.co.simplitate.hotelbooking.enums.PaymentStatus;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+import za.co.simplitate.hotelbooking.util.GenericMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements each booking use case issues against H2, so a mapping that starts loading
+ * users or rooms one booking at a time fails here rather than in production.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingRepositoryFetchTest {
+
+    private static final int BOOKINGS = 6;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User guest;
+    private String reference;
+
+    @BeforeEach
+    void setUp() {
+        guest = entityManager.persist(User.builder().email("guest@test").firstName("Grace").password("secret")
+                .phoneNumber("0821234567").role(UserRole.CUSTOMER).build());
+        for (int i = 0; i < BOOKINGS; i++) {
+            // a room per booking, so loading rooms lazily would cost one select each
+            Room room = entityManager.persist(Room.builder().roomNumber(100 + i).roomType(RoomType.DOUBLE)
+                    .pricePerNight(new BigDecimal("100.00")).capacity(2).build());
+            reference = "REF" + i;
+            entityManager.persist(Booking.builder().user(guest).room(room).bookingReference(reference)
+                    .checkInDate(LocalDate.now().plusDays(i)).checkOutDate(LocalDate.now().plusDays(i + 1))
+                    .totalPrice(new BigDecimal("100.00")).paymentStatus(PaymentStatus.PENDING)
+                    .bookingStatus(BookingStatus.BOOKED).createdAt(LocalDate.now()).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findBookingsByUser - booking history with users and rooms in one statement")
+    void bookingHistory() {
+        List<BookingTO> history = bookingRepository.findBookingsByUser(guest).stream()
+                .map(GenericMapper::mapToBookingTO)
+                .toList();
+        history.forEach(booking -> {
+            assertEquals("Grace", booking.user().firstName());
+            assertEquals(RoomType.DOUBLE, booking.room().roomType());
+        });
+
+        assertEquals(BOOKINGS, history.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("findBookingPage - admin list is a single projection query")
+    void adminList() {
+        List<BookingTO> page = bookingRepository.findBookingPage(Long.MAX_VALUE, Limit.of(BOOKINGS));
+
+        assertEquals(BOOKINGS, page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("findBookingByBookingReference - detail loads user and room in one statement")
+    void bookingDetail() {
+        BookingTO booking = GenericMapper.mapToBookingTO(
+                bookingRepository.findBookingByBookingReference(reference).orElseThrow());
+
+        assertEquals("Grace", booking.user().firstName());
+        assertEquals(105, booking.room().roomNumber());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("findForPaymentByBookingReference - payment lookup loads the user but not the room")
+    void paymentLookup() {
+        Booking booking = bookingRepository.findForPaymentByBookingReference(reference).orElseThrow();
+
+        assertEquals("guest@test", booking.getUser().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("findWithRoomById - status update loads the room but not the user")
+    void statusUpdate() {
+        Long bookingId = bookingRepository.findBookingByBookingReference(reference).orElseThrow().getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Booking booking = bookingRepository.findWithRoomById(bookingId).orElseThrow();
+
+        assertEquals(RoomType.DOUBLE, booking.getRoom().getRoomType());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("findById - keeps the default lazy fetch for callers that need neither user nor room")
+    void plainFindById() {
+        Long bookingId = bookingRepository.findBookingByBookingReference(reference).orElseThrow().getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(booking.getRoom()));
+        assertFalse(Hibernate.isInitialized(booking.getUser()));
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,44 @@
+package za.co.simplitate.hotelbooking.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class IdempotencyRecordRepositoryTest {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Test
+    @DisplayName("claim - only the first request claims a key, and a claim is released only once it expires")
+    void claim() {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(Duration.ofDays(1));
+
+        assertEquals(1, idempotencyRecordRepository.claim("a", "hash", now, expiresAt));
+        assertEquals(0, idempotencyRecordRepository.claim("a", "other", now, expiresAt));
+        assertEquals(0, idempotencyRecordRepository.release("a", now.plus(Duration.ofHours(1))));
+        assertEquals(1, idempotencyRecordRepository.release("a", expiresAt.plusSeconds(1)));
+        assertEquals(1, idempotencyRecordRepository.claim("a", "other", now, expiresAt));
+    }
+
+    @Test
+    @DisplayName("complete - stores the response, which keeps the record until it expires")
+    void complete() {
+        Instant now = Instant.now();
+        idempotencyRecordRepository.claim("a", "hash", now, now.plusSeconds(60));
+
+        assertEquals(1, idempotencyRecordRepository.complete("a", "{\"status\":200}"));
+        assertEquals(0, idempotencyRecordRepository.release("a", now.plusSeconds(1)));
+        assertEquals("{\"status\":200}", idempotencyRecordRepository.findById("a").orElseThrow().getResponse());
+        assertEquals(0, idempotencyRecordRepository.deleteExpired(now));
+        assertEquals(1, idempotencyRecordRepository.deleteExpired(now.plusSeconds(61)));
+    }
+}
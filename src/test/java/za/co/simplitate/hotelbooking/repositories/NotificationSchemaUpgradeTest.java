@@ -0,0 +1,38 @@
+package za.co.simplitate.hotelbooking.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import za.co.simplitate.hotelbooking.entities.Notification;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts JPA with {@code ddl-auto=update} on a notifications table created before the outbox columns and
+ * already holding a row, the way production upgrades. Schema errors halt startup, so a column that cannot be
+ * added to a populated table fails the context here.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/legacy-notifications.sql",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.properties.hibernate.hbm2ddl.halt_on_error=true"
+})
+class NotificationSchemaUpgradeTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    @DisplayName("ddl-auto=update - adds the outbox columns to a populated notifications table")
+    void upgradesPopulatedTable() {
+        List<Notification> notifications = notificationRepository.findAll();
+
+        assertEquals(1, notifications.size());
+        assertEquals(0, notifications.getFirst().getAttempts());
+        assertNull(notifications.getFirst().getStatus());
+    }
+}
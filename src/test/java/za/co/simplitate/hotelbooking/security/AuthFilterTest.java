@@ -0,0 +1,125 @@
+package za.co.simplitate.hotelbooking.security;
+
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthFilterTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+    @Mock
+    private FilterChain filterChain;
+
+    private final JWTUtils jwtUtils = new JWTUtils();
+    private final TokenRevocations tokenRevocations = new TokenRevocations(jwtUtils);
+
+    private AuthFilter authFilter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtils, "secretJwtString", SECRET);
+        jwtUtils.init();
+        authFilter = new AuthFilter(jwtUtils, customUserDetailsService, new PrincipalCache(300, 100),
+                tokenRevocations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("doFilter - authorizes from the token's claims without loading the user")
+    void authorizesFromClaims() throws Exception {
+        String token = jwtUtils.generateToken(User.builder().id(7L).email("admin@email.com").role(UserRole.ADMIN)
+                .build());
+
+        Authentication authentication = filter(token);
+
+        assertEquals("admin@email.com", authentication.getName());
+        assertEquals(new JwtPrincipal(7L, "admin@email.com", UserRole.ADMIN), authentication.getPrincipal());
+        assertEquals("ADMIN", authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                .findFirst().orElseThrow());
+        verifyNoInteractions(customUserDetailsService);
+    }
+
+    @Test
+    @DisplayName("doFilter - revoked token leaves the request unauthenticated")
+    void revokedToken() throws Exception {
+        String token = jwtUtils.generateToken(User.builder().id(7L).email("admin@email.com").role(UserRole.ADMIN)
+                .build());
+        tokenRevocations.revoke(jwtUtils.parseToken(token));
+
+        assertNull(filter(token));
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("doFilter - long-lived token without an id is rejected, as it could never be revoked")
+    void tokenWithoutId() throws Exception {
+        Instant issued = Instant.now();
+        String token = sign(null, issued, issued.plus(Duration.ofDays(180)));
+
+        assertNull(filter(token));
+        verifyNoInteractions(customUserDetailsService);
+    }
+
+    @Test
+    @DisplayName("doFilter - token issued longer ago than the access token lifetime is rejected")
+    void tokenOlderThanTtl() throws Exception {
+        Instant issued = Instant.now().minus(jwtUtils.getAccessTokenTtl()).minusSeconds(60);
+        String token = sign(UUID.randomUUID().toString(), issued, issued.plus(Duration.ofDays(180)));
+
+        assertNull(filter(token));
+        assertNotNull(filter(sign(UUID.randomUUID().toString(), Instant.now(), Instant.now().plusSeconds(60))));
+    }
+
+    private static String sign(String tokenId, Instant issuedAt, Instant expiresAt) {
+        return Jwts.builder()
+                .id(tokenId)
+                .subject("admin@email.com")
+                .claim("uid", 7L)
+                .claim("role", UserRole.ADMIN.name())
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(expiresAt))
+                .signWith(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .compact();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/account");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        authFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,76 @@
+package za.co.simplitate.hotelbooking.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import za.co.simplitate.hotelbooking.exceptions.TooManyRequestsException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("matches - turned away once the pool and its queue are busy")
+    void matchesSaturated() throws Exception {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, executor);
+        String hash = slow.encode("secret");
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("secret", hash));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("wrong", hash));
+        while (executor.getQueueSize() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> encoder.matches("secret", hash));
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertFalse(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("delegatingPasswordEncoder - legacy and cheaper hashes match and are flagged for re-hashing")
+    void delegatingUpgrade() {
+        PasswordEncoder encoder = SecurityFilter.delegatingPasswordEncoder(6);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        String current = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        assertTrue(current.startsWith("{bcrypt}"));
+        assertFalse(encoder.upgradeEncoding(current));
+        assertTrue(encoder.upgradeEncoding(SecurityFilter.delegatingPasswordEncoder(4).encode("secret")));
+    }
+}
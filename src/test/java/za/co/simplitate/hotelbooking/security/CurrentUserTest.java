@@ -0,0 +1,66 @@
+package za.co.simplitate.hotelbooking.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+import za.co.simplitate.hotelbooking.repositories.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CurrentUser currentUser;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(7L, "john@email.com", UserRole.CUSTOMER), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("reference - stands in for the user without a query")
+    void reference() {
+        User reference = User.builder().id(7L).build();
+        when(userRepository.getReferenceById(7L)).thenReturn(reference);
+
+        assertSame(reference, currentUser.reference());
+        assertEquals("john@email.com", currentUser.principal().email());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("get - loads the user once per request")
+    void get() {
+        User user = User.builder().id(7L).email("john@email.com").build();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        assertSame(user, currentUser.get());
+        assertSame(user, currentUser.get());
+        assertSame(user, currentUser.reference());
+        verify(userRepository, times(1)).findById(7L);
+        verify(userRepository, never()).getReferenceById(any());
+    }
+}
@@ -0,0 +1,58 @@
+package za.co.simplitate.hotelbooking.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static za.co.simplitate.hotelbooking.MockData.mockUser;
+import static za.co.simplitate.hotelbooking.TestConstants.EMAIL;
+
+class PrincipalCacheTest {
+
+    private static final Instant IN_AN_HOUR = Instant.now().plusSeconds(3600);
+
+    private final UserDetails userDetails = AuthUser.builder().user(mockUser()).build();
+
+    @Test
+    @DisplayName("get - returns cached principal until the token expires")
+    void testGet() {
+        PrincipalCache principalCache = new PrincipalCache(300, 100);
+        principalCache.put("valid", userDetails, IN_AN_HOUR);
+        principalCache.put("expired", userDetails, Instant.now().minusMillis(1));
+
+        assertSame(userDetails, principalCache.get("valid"));
+        assertNull(principalCache.get("expired"));
+        assertNull(principalCache.get("unknown"));
+    }
+
+    @Test
+    @DisplayName("evictUser - removes every token of the user")
+    void testEvictUser() {
+        PrincipalCache principalCache = new PrincipalCache(300, 100);
+        principalCache.put("first", userDetails, IN_AN_HOUR);
+        principalCache.put("second", userDetails, IN_AN_HOUR);
+
+        principalCache.evictUser(EMAIL);
+
+        assertNull(principalCache.get("first"));
+        assertNull(principalCache.get("second"));
+    }
+
+    @Test
+    @DisplayName("put - stays bounded when full")
+    void testPut_bounded() {
+        PrincipalCache principalCache = new PrincipalCache(300, 10);
+        for (int i = 0; i < 100; i++) {
+            principalCache.put("token" + i, userDetails, IN_AN_HOUR);
+        }
+
+        assertSame(userDetails, principalCache.get("token99"));
+        long cached = java.util.stream.IntStream.range(0, 100)
+                .filter(i -> principalCache.get("token" + i) != null)
+                .count();
+        assertTrue(cached <= 10);
+    }
+}
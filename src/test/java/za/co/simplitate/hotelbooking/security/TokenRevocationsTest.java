@@ -0,0 +1,56 @@
+package za.co.simplitate.hotelbooking.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationsTest {
+
+    private final TokenRevocations tokenRevocations = new TokenRevocations(new JWTUtils());
+
+    @Test
+    @DisplayName("revoke - only the revoked token id is rejected")
+    void revoke() {
+        TokenClaims revoked = claims("a", "john@email.com", Instant.now(), 600);
+
+        tokenRevocations.revoke(revoked);
+
+        assertTrue(tokenRevocations.isRevoked(revoked));
+        assertFalse(tokenRevocations.isRevoked(claims("b", "john@email.com", Instant.now(), 600)));
+    }
+
+    @Test
+    @DisplayName("revokeSubject - rejects tokens issued up to then, not after")
+    void revokeSubject() {
+        Instant before = Instant.now().minusSeconds(1);
+
+        tokenRevocations.revokeSubject("john@email.com");
+
+        assertTrue(tokenRevocations.isRevoked(claims("a", "john@email.com", before, 600)));
+        assertFalse(tokenRevocations.isRevoked(claims("b", "john@email.com", Instant.now().plusSeconds(1), 600)));
+        assertFalse(tokenRevocations.isRevoked(claims("c", "jane@email.com", before, 600)));
+    }
+
+    @Test
+    @DisplayName("purgeExpired - drops ids once their tokens have expired")
+    void purgeExpired() {
+        TokenClaims live = claims("live", "john@email.com", Instant.now(), 600);
+        tokenRevocations.revoke(live);
+        tokenRevocations.revoke(claims("expired", "john@email.com", Instant.now(), -120));
+
+        tokenRevocations.purgeExpired();
+
+        assertTrue(tokenRevocations.isRevoked(live));
+        assertFalse(tokenRevocations.isRevoked(claims("expired", "john@email.com", Instant.now(), -120)));
+    }
+
+    private static TokenClaims claims(String id, String subject, Instant issuedAt, long expiresInSeconds) {
+        return new TokenClaims(id, subject, 1L, UserRole.CUSTOMER, issuedAt.truncatedTo(ChronoUnit.SECONDS),
+                Instant.now().plusSeconds(expiresInSeconds));
+    }
+}
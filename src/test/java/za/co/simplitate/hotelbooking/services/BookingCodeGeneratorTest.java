@@ -0,0 +1,111 @@
+package za.co.simplitate.hotelbooking.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingCodeGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int REFERENCES_PER_THREAD = 250_000;
+
+    @Test
+    @DisplayName("generateBookingReference - millions of concurrent references, no duplicates")
+    void testGenerateBookingReference_concurrentUnique() throws Exception {
+        BookingCodeGenerator generator = new BookingCodeGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<String[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                String[] references = new String[REFERENCES_PER_THREAD];
+                for (int i = 0; i < references.length; i++) {
+                    references[i] = generator.generateBookingReference();
+                }
+                return references;
+            }));
+        }
+        start.countDown();
+        String[] all = new String[THREADS * REFERENCES_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            System.arraycopy(futures.get(t).get(60, TimeUnit.SECONDS), 0, all, t * REFERENCES_PER_THREAD,
+                    REFERENCES_PER_THREAD);
+        }
+        executor.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 0; i < all.length; i++) {
+            assertEquals(BookingCodeGenerator.REFERENCE_LENGTH, all[i].length());
+            assertTrue(all[i].chars().allMatch(Character::isLetterOrDigit));
+            if (i > 0) {
+                assertNotEquals(all[i - 1], all[i], "duplicate reference");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("generateBookingReference - same second on two nodes never collides")
+    void testGenerateBookingReference_nodesDisjoint() {
+        long frozen = Instant.parse("2026-06-01T12:00:00Z").getEpochSecond();
+        BookingCodeGenerator node1 = new BookingCodeGenerator(1, () -> frozen);
+        BookingCodeGenerator node2 = new BookingCodeGenerator(2, () -> frozen);
+
+        // more than one second's worth of sequence, so both nodes borrow ahead
+        long[] values = IntStream.range(0, 300_000)
+                .mapToLong(i -> (i % 2 == 0 ? node1 : node2).nextValue())
+                .sorted()
+                .toArray();
+
+        for (int i = 1; i < values.length; i++) {
+            assertNotEquals(values[i - 1], values[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("generateBookingReference - references keep increasing when the clock steps back")
+    void testGenerateBookingReference_clockStepsBack() {
+        AtomicLong now = new AtomicLong(Instant.parse("2026-06-01T12:00:00Z").getEpochSecond());
+        BookingCodeGenerator generator = new BookingCodeGenerator(3, now::get);
+
+        long before = generator.nextValue();
+        now.addAndGet(-60);
+        long after = generator.nextValue();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    @DisplayName("scramble - one-to-one on sampled values")
+    void testScramble_bijective() {
+        long[] scrambled = ThreadLocalRandom.current().longs(200_000, 0, 1L << 59)
+                .distinct()
+                .map(BookingCodeGenerator::scramble)
+                .toArray();
+
+        assertEquals(scrambled.length, Arrays.stream(scrambled).distinct().count());
+        assertTrue(Arrays.stream(scrambled).allMatch(value -> value >= 0 && value < 1L << 59));
+    }
+
+    @Test
+    @DisplayName("BookingCodeGenerator - rejects node ids that do not fit in 10 bits")
+    void testConstructor_invalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingCodeGenerator(1024));
+    }
+
+    @Test
+    @DisplayName("BookingCodeGenerator - refuses to start without a node id instead of picking a random one")
+    void testConstructor_missingNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingCodeGenerator(-1));
+    }
+}
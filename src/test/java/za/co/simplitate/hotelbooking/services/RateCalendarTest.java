@@ -0,0 +1,154 @@
+package za.co.simplitate.hotelbooking.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.entities.RateRule;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.repositories.RateRuleRepository;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateCalendarTest {
+
+    private static final BigDecimal PRICE = new BigDecimal("100.00");
+
+    @Mock
+    private RateRuleRepository rateRuleRepository;
+    @Mock
+    private RoomCatalogue roomCatalogue;
+    @Mock
+    private RoomAvailabilityIndex roomAvailabilityIndex;
+
+    private final LocalDate friday = LocalDate.now().plusDays(7).with(TemporalAdjusters.next(DayOfWeek.FRIDAY));
+
+    @Test
+    @DisplayName("price - without rules is the nightly price times the nights")
+    void priceWithoutRules() {
+        RateCalendar rateCalendar = calendar();
+
+        assertEquals(new BigDecimal("300.00"), rateCalendar.price(RoomType.SUITE, PRICE, friday, friday.plusDays(3)));
+    }
+
+    @Test
+    @DisplayName("price - weekend rule applies to its room type only")
+    void priceWeekendRule() {
+        RateCalendar rateCalendar = calendar(rule(1L, RoomType.SUITE, null, null, Set.of(DayOfWeek.FRIDAY,
+                DayOfWeek.SATURDAY), null, "1.5"));
+
+        // Friday and Saturday nights at 150, Sunday at 100
+        assertEquals(new BigDecimal("400.00"), rateCalendar.price(RoomType.SUITE, PRICE, friday, friday.plusDays(3)));
+        assertEquals(new BigDecimal("300.00"), rateCalendar.price(RoomType.SINGLE, PRICE, friday, friday.plusDays(3)));
+    }
+
+    @Test
+    @DisplayName("onRuleChanged - recompiles covered dates, and deleting restores them")
+    void onRuleChanged() {
+        RateCalendar rateCalendar = calendar(rule(1L, null, null, null, Set.of(), null, "1.1"));
+        RateRule season = rule(2L, RoomType.DOUBLE, friday.plusDays(1), friday.plusDays(1), Set.of(), null, "2");
+
+        rateCalendar.onRuleChanged(null, season);
+        BigDecimal withSeason = rateCalendar.price(RoomType.DOUBLE, PRICE, friday, friday.plusDays(3));
+        RateRule shortened = rule(2L, RoomType.DOUBLE, friday.plusDays(5), friday.plusDays(5), Set.of(), null, "2");
+        rateCalendar.onRuleChanged(season, shortened);
+        BigDecimal moved = rateCalendar.price(RoomType.DOUBLE, PRICE, friday, friday.plusDays(3));
+        rateCalendar.onRuleChanged(shortened, null);
+
+        assertEquals(new BigDecimal("440.00"), withSeason);
+        assertEquals(new BigDecimal("330.00"), moved);
+        assertEquals(new BigDecimal("330.00"), rateCalendar.price(RoomType.DOUBLE, PRICE, friday.plusDays(5),
+                friday.plusDays(8)));
+    }
+
+    @Test
+    @DisplayName("price - occupancy rule applies once enough rooms of the type are booked")
+    void priceOccupancyRule() {
+        when(roomCatalogue.findByType(any())).thenReturn(List.of(RoomTO.builder().id(1L).build(),
+                RoomTO.builder().id(2L).build()));
+        int[] occupiedRooms = {0};
+        when(roomAvailabilityIndex.occupiedCounts(anyCollection(), any(), any())).thenAnswer(invocation -> {
+            int[] counts = new int[(int) ChronoUnit.DAYS.between(invocation.<LocalDate>getArgument(1),
+                    invocation.<LocalDate>getArgument(2)) + 1];
+            Arrays.fill(counts, occupiedRooms[0]);
+            return counts;
+        });
+        RateCalendar rateCalendar = calendar(rule(1L, RoomType.DOUBLE, null, null, Set.of(), 50, "1.2"));
+        BigDecimal quiet = rateCalendar.price(RoomType.DOUBLE, PRICE, friday, friday.plusDays(2));
+
+        occupiedRooms[0] = 1;
+        rateCalendar.onOccupancyChanged(RoomType.DOUBLE, friday, friday.plusDays(2));
+
+        assertEquals(new BigDecimal("200.00"), quiet);
+        assertEquals(new BigDecimal("240.00"), rateCalendar.price(RoomType.DOUBLE, PRICE, friday, friday.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("onRoomTypesChanged - adding rooms to a type recompiles its occupancy rules")
+    void onRoomTypesChanged() {
+        List<RoomTO> doubles = new ArrayList<>(List.of(RoomTO.builder().id(1L).build()));
+        when(roomCatalogue.findByType(any())).thenAnswer(invocation -> List.copyOf(doubles));
+        when(roomAvailabilityIndex.occupiedCounts(anyCollection(), any(), any())).thenAnswer(invocation -> {
+            int[] counts = new int[(int) ChronoUnit.DAYS.between(invocation.<LocalDate>getArgument(1),
+                    invocation.<LocalDate>getArgument(2)) + 1];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        RateCalendar rateCalendar = calendar(rule(1L, RoomType.DOUBLE, null, null, Set.of(), 60, "1.2"));
+        BigDecimal full = rateCalendar.price(RoomType.DOUBLE, PRICE, friday, friday.plusDays(2));
+
+        // one of two rooms booked is below the 60% threshold
+        doubles.add(RoomTO.builder().id(2L).build());
+        rateCalendar.onRoomTypesChanged(new RoomCatalogue.RoomTypesChanged(Set.of(RoomType.DOUBLE)));
+
+        assertEquals(new BigDecimal("240.00"), full);
+        assertEquals(new BigDecimal("200.00"), rateCalendar.price(RoomType.DOUBLE, PRICE, friday, friday.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("price - stays beyond the horizon evaluate the rules night by night")
+    void priceBeyondHorizon() {
+        RateCalendar rateCalendar = calendar(rule(1L, null, null, null, Set.of(DayOfWeek.SATURDAY), null, "1.5"));
+        LocalDate farFriday = LocalDate.now().plusYears(3).with(TemporalAdjusters.next(DayOfWeek.FRIDAY));
+
+        assertEquals(new BigDecimal("350.00"), rateCalendar.price(RoomType.SUITE, PRICE, farFriday,
+                farFriday.plusDays(3)));
+    }
+
+    private RateCalendar calendar(RateRule... rules) {
+        when(rateRuleRepository.findAll()).thenReturn(List.of(rules));
+        RateCalendar rateCalendar = new RateCalendar(rateRuleRepository, roomCatalogue, roomAvailabilityIndex);
+        rateCalendar.rebuild();
+        return rateCalendar;
+    }
+
+    private static RateRule rule(Long id, RoomType roomType, LocalDate startDate, LocalDate endDate,
+                                 Set<DayOfWeek> daysOfWeek, Integer minOccupancyPercent, String multiplier) {
+        return RateRule.builder()
+                .id(id)
+                .name("rule " + id)
+                .roomType(roomType)
+                .startDate(startDate)
+                .endDate(endDate)
+                .daysOfWeek(new HashSet<>(daysOfWeek))
+                .minOccupancyPercent(minOccupancyPercent)
+                .multiplier(new BigDecimal(multiplier))
+                .build();
+    }
+}
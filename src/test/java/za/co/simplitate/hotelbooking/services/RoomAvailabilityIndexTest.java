@@ -0,0 +1,84 @@
+package za.co.simplitate.hotelbooking.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import za.co.simplitate.hotelbooking.dtos.RoomOccupancy;
+import za.co.simplitate.hotelbooking.repositories.BookingRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoomAvailabilityIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private RoomAvailabilityIndex roomAvailabilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(bookingRepository.findActiveStays(any())).thenReturn(List.of(
+                new RoomOccupancy(1L, TODAY.plusDays(10), TODAY.plusDays(12)),
+                new RoomOccupancy(2L, TODAY.minusDays(3), TODAY.plusDays(1))));
+        roomAvailabilityIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("isAvailable - overlapping and touching ranges are booked")
+    void testIsAvailable_overlaps() {
+        assertFalse(roomAvailabilityIndex.isAvailable(1L, TODAY.plusDays(11), TODAY.plusDays(15)));
+        assertFalse(roomAvailabilityIndex.isAvailable(1L, TODAY.plusDays(5), TODAY.plusDays(10)));
+        assertFalse(roomAvailabilityIndex.isAvailable(1L, TODAY.plusDays(12), TODAY.plusDays(14)));
+        assertFalse(roomAvailabilityIndex.isAvailable(2L, TODAY, TODAY.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("isAvailable - free ranges and unknown rooms are available")
+    void testIsAvailable_free() {
+        assertTrue(roomAvailabilityIndex.isAvailable(1L, TODAY.plusDays(1), TODAY.plusDays(9)));
+        assertTrue(roomAvailabilityIndex.isAvailable(1L, TODAY.plusDays(13), TODAY.plusDays(200)));
+        assertTrue(roomAvailabilityIndex.isAvailable(2L, TODAY.plusDays(2), TODAY.plusDays(3)));
+        assertTrue(roomAvailabilityIndex.isAvailable(3L, TODAY, TODAY.plusDays(600)));
+    }
+
+    @Test
+    @DisplayName("onBookingCreated - marks nights outside a transaction immediately")
+    void testOnBookingCreated() {
+        roomAvailabilityIndex.onBookingCreated(3L, TODAY.plusDays(70), TODAY.plusDays(130));
+
+        assertFalse(roomAvailabilityIndex.isAvailable(3L, TODAY.plusDays(64), TODAY.plusDays(70)));
+        assertFalse(roomAvailabilityIndex.isAvailable(3L, TODAY.plusDays(100), TODAY.plusDays(101)));
+        assertTrue(roomAvailabilityIndex.isAvailable(3L, TODAY.plusDays(131), TODAY.plusDays(140)));
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - reloads the room from the database")
+    void testOnBookingChanged() {
+        when(bookingRepository.findActiveStaysByRoom(eq(1L), any())).thenReturn(List.of());
+
+        roomAvailabilityIndex.onBookingChanged(1L);
+
+        assertTrue(roomAvailabilityIndex.isAvailable(1L, TODAY.plusDays(10), TODAY.plusDays(12)));
+    }
+
+    @Test
+    @DisplayName("covers - dates beyond the horizon are not covered")
+    void testCovers() {
+        assertTrue(roomAvailabilityIndex.covers(TODAY, TODAY.plusDays(365)));
+        assertFalse(roomAvailabilityIndex.covers(TODAY, TODAY.plusYears(3)));
+    }
+}
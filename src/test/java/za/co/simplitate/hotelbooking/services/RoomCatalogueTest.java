@@ -0,0 +1,182 @@
+package za.co.simplitate.hotelbooking.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.entities.Room;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomCatalogueTest {
+
+    @Mock
+    private RoomsRepository roomsRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Object> events = new ArrayList<>();
+
+    private RoomCatalogue roomCatalogue;
+
+    @BeforeEach
+    void setUp() {
+        when(roomsRepository.findAll()).thenReturn(List.of(
+                room(1L, RoomType.SINGLE, 1),
+                room(2L, RoomType.DOUBLE, 2),
+                room(3L, RoomType.DOUBLE, 4)));
+        roomCatalogue = new RoomCatalogue(roomsRepository, events::add, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("findAll - loads once, then serves from memory newest first")
+    void testFindAll_readThrough() {
+        assertEquals(List.of(3L, 2L, 1L), roomCatalogue.findAll().stream().map(RoomTO::id).toList());
+        roomCatalogue.findByType(RoomType.DOUBLE);
+        roomCatalogue.findById(1L);
+
+        verify(roomsRepository, times(1)).findAll();
+        verify(roomsRepository, never()).findById(any());
+        assertEquals(1, meterRegistry.counter("rooms.catalogue.requests", "result", "miss").count());
+        assertEquals(2, meterRegistry.counter("rooms.catalogue.requests", "result", "hit").count());
+    }
+
+    @Test
+    @DisplayName("findByTypeAndCapacity - filters by type and minimum capacity")
+    void testFindByTypeAndCapacity() {
+        assertEquals(List.of(3L), roomCatalogue.findByTypeAndCapacity(RoomType.DOUBLE, 3).stream()
+                .map(RoomTO::id).toList());
+        assertEquals(List.of(3L, 2L), roomCatalogue.findByTypeAndCapacity(null, 2).stream()
+                .map(RoomTO::id).toList());
+        assertTrue(roomCatalogue.findByType(RoomType.SUITE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("onRoomSaved/onRoomDeleted - replace only the affected room")
+    void testAdminChanges() {
+        roomCatalogue.findAll();
+
+        roomCatalogue.onRoomSaved(room(2L, RoomType.SUITE, 2));
+        roomCatalogue.onRoomSaved(room(4L, RoomType.SINGLE, 1));
+        roomCatalogue.onRoomDeleted(1L);
+
+        assertEquals(List.of(4L, 3L, 2L), roomCatalogue.findAll().stream().map(RoomTO::id).toList());
+        assertEquals(List.of(2L), roomCatalogue.findByType(RoomType.SUITE).stream().map(RoomTO::id).toList());
+        assertEquals(List.of(4L), roomCatalogue.findByType(RoomType.SINGLE).stream().map(RoomTO::id).toList());
+        verify(roomsRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("onRoomSaved/onRoomDeleted/reload - publish the room types that gained or lost rooms")
+    void testRoomTypesChanged() {
+        roomCatalogue.findAll();
+
+        roomCatalogue.onRoomSaved(Room.builder().id(2L).roomNumber(102).roomType(RoomType.DOUBLE).capacity(2)
+                .description("renovated").build());
+        roomCatalogue.onRoomSaved(room(2L, RoomType.SUITE, 2));
+        roomCatalogue.onRoomDeleted(1L);
+        when(roomsRepository.findAll()).thenReturn(List.of(room(3L, RoomType.DOUBLE, 4)));
+        roomCatalogue.reload();
+
+        assertEquals(List.of(
+                new RoomCatalogue.RoomTypesChanged(Set.of(RoomType.DOUBLE, RoomType.SUITE)),
+                new RoomCatalogue.RoomTypesChanged(Set.of(RoomType.SINGLE)),
+                new RoomCatalogue.RoomTypesChanged(Set.of(RoomType.SUITE))), events);
+    }
+
+    @Test
+    @DisplayName("findById - unknown id falls back to the database, found or not, and is cached")
+    void testFindById_miss() {
+        when(roomsRepository.findById(9L)).thenReturn(Optional.of(room(9L, RoomType.TRIPLE, 3)));
+        when(roomsRepository.findById(10L)).thenReturn(Optional.empty());
+        roomCatalogue.findAll();
+
+        assertEquals(9L, roomCatalogue.findById(9L).orElseThrow().id());
+        assertEquals(9L, roomCatalogue.findById(9L).orElseThrow().id());
+        assertTrue(roomCatalogue.findById(10L).isEmpty());
+        assertTrue(roomCatalogue.findById(10L).isEmpty());
+
+        verify(roomsRepository, times(1)).findById(9L);
+        verify(roomsRepository, times(1)).findById(10L);
+        assertEquals(List.of(9L, 3L, 2L, 1L), roomCatalogue.findAll().stream().map(RoomTO::id).toList());
+    }
+
+    @Test
+    @DisplayName("findById - a room created after it was found missing is served")
+    void testFindById_missingThenCreated() {
+        when(roomsRepository.findById(9L)).thenReturn(Optional.empty());
+        roomCatalogue.findAll();
+
+        assertTrue(roomCatalogue.findById(9L).isEmpty());
+        roomCatalogue.onRoomSaved(room(9L, RoomType.TRIPLE, 3));
+
+        assertEquals(9L, roomCatalogue.findById(9L).orElseThrow().id());
+    }
+
+    @Test
+    @DisplayName("findById - a room deleted while it was loading is not cached")
+    void testFindById_deletedWhileLoading() {
+        roomCatalogue.findAll();
+        when(roomsRepository.findById(9L)).thenAnswer(invocation -> {
+            // the delete commits after the load read the row
+            roomCatalogue.onRoomDeleted(9L);
+            return Optional.of(room(9L, RoomType.TRIPLE, 3));
+        });
+
+        roomCatalogue.findById(9L);
+
+        assertEquals(List.of(3L, 2L, 1L), roomCatalogue.findAll().stream().map(RoomTO::id).toList());
+    }
+
+    @Test
+    @DisplayName("version - moves on every change, but not on a reload or save that changes nothing")
+    void testVersion() {
+        RoomCatalogue.Version loaded = roomCatalogue.version();
+
+        roomCatalogue.reload();
+        RoomCatalogue.Version reloaded = roomCatalogue.version();
+        roomCatalogue.onRoomSaved(room(1L, RoomType.SINGLE, 1));
+        RoomCatalogue.Version unchanged = roomCatalogue.version();
+        roomCatalogue.onRoomSaved(room(2L, RoomType.SUITE, 2));
+        RoomCatalogue.Version saved = roomCatalogue.version();
+        roomCatalogue.onRoomDeleted(2L);
+        RoomCatalogue.Version deleted = roomCatalogue.version();
+
+        assertEquals(loaded, reloaded);
+        assertEquals(loaded, unchanged);
+        assertNotEquals(loaded.etag(), saved.etag());
+        assertNotEquals(saved.etag(), deleted.etag());
+        // changes within the same second still get distinct Last-Modified dates
+        assertTrue(saved.modifiedAt().isAfter(loaded.modifiedAt()));
+        assertTrue(deleted.modifiedAt().isAfter(saved.modifiedAt()));
+    }
+
+    @Test
+    @DisplayName("version - catalogues holding the same rooms agree on the ETag")
+    void testVersion_sameRoomsSameEtag() {
+        RoomCatalogue other = new RoomCatalogue(roomsRepository, event -> { }, new SimpleMeterRegistry());
+
+        assertEquals(roomCatalogue.version().etag(), other.version().etag());
+
+        roomCatalogue.onRoomDeleted(3L);
+        other.onRoomDeleted(3L);
+
+        assertEquals(roomCatalogue.version().etag(), other.version().etag());
+    }
+
+    private static Room room(Long id, RoomType roomType, int capacity) {
+        return Room.builder().id(id).roomNumber(id.intValue() + 100).roomType(roomType).capacity(capacity).build();
+    }
+}
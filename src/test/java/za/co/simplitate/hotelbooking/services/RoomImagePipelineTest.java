@@ -0,0 +1,265 @@
+package za.co.simplitate.hotelbooking.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.entities.Room;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.images.FileSystemImageStore;
+import za.co.simplitate.hotelbooking.images.ImageKeys;
+import za.co.simplitate.hotelbooking.images.ImageStore;
+import za.co.simplitate.hotelbooking.images.ImageVariant;
+import za.co.simplitate.hotelbooking.images.StoredImage;
+import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
+import za.co.simplitate.hotelbooking.services.impl.RoomServiceImpl;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomImagePipelineTest {
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private RoomsRepository roomsRepository;
+
+    @Mock
+    private RoomCatalogue roomCatalogue;
+
+    private ImageStore imageStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageStore = new FileSystemImageStore(root);
+    }
+
+    @Test
+    @DisplayName("onImageStored - renders width-bounded JPEG variants and records them")
+    void onImageStored() throws IOException {
+        String imageUrl = storePng(2400, 1600);
+        Room room = Room.builder().id(7L).imageUrl(imageUrl).build();
+        when(roomsRepository.updateImageVariants(eq(7L), eq(imageUrl), anyString(), anyString(), anyString()))
+                .thenReturn(1);
+        when(roomsRepository.findById(7L)).thenReturn(Optional.of(room));
+
+        new RoomImagePipeline(imageStore, roomsRepository, roomCatalogue, new SyncTaskExecutor())
+                .onImageStored(7L, imageUrl);
+
+        ArgumentCaptor<String> thumbnail = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> medium = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> full = ArgumentCaptor.forClass(String.class);
+        verify(roomsRepository).updateImageVariants(eq(7L), eq(imageUrl), thumbnail.capture(), medium.capture(),
+                full.capture());
+        verify(roomCatalogue).onRoomSaved(room);
+        assertEquals(320, width(thumbnail.getValue()));
+        assertEquals(213, height(thumbnail.getValue()));
+        assertEquals(960, width(medium.getValue()));
+        assertEquals(1920, width(full.getValue()));
+        assertTrue(full.getValue().endsWith(".jpg"));
+        assertTrue(size(thumbnail.getValue()) < size(imageUrl));
+    }
+
+    @Test
+    @DisplayName("onImageStored - small images are re-encoded without upscaling")
+    void onImageStoredSmallImage() throws IOException {
+        String imageUrl = storePng(200, 100);
+        when(roomsRepository.updateImageVariants(anyLong(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(1);
+
+        new RoomImagePipeline(imageStore, roomsRepository, roomCatalogue, new SyncTaskExecutor())
+                .onImageStored(7L, imageUrl);
+
+        ArgumentCaptor<String> full = ArgumentCaptor.forClass(String.class);
+        verify(roomsRepository).updateImageVariants(eq(7L), eq(imageUrl), anyString(), anyString(), full.capture());
+        assertEquals(200, width(full.getValue()));
+    }
+
+    @Test
+    @DisplayName("onImageStored - replaced image leaves the catalogue alone")
+    void onImageStoredReplaced() throws IOException {
+        String imageUrl = storePng(400, 300);
+        when(roomsRepository.updateImageVariants(anyLong(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(0);
+
+        new RoomImagePipeline(imageStore, roomsRepository, roomCatalogue, new SyncTaskExecutor())
+                .onImageStored(7L, imageUrl);
+
+        verifyNoInteractions(roomCatalogue);
+    }
+
+    @Test
+    @DisplayName("onImageStored - full queue does not fail the upload")
+    void onImageStoredQueueFull() {
+        RoomImagePipeline pipeline = new RoomImagePipeline(imageStore, roomsRepository, roomCatalogue, task -> {
+            throw new TaskRejectedException("full");
+        });
+
+        assertDoesNotThrow(() -> pipeline.onImageStored(7L, ImageKeys.URL_PREFIX + "a".repeat(64) + ".png"));
+        verifyNoInteractions(roomsRepository);
+    }
+
+    /**
+     * An admin edit racing the pipeline on H2: the edit reads the room, then the pipeline finishes rendering
+     * and records its variants before the edit commits.
+     */
+    @Nested
+    @DataJpaTest(properties = {
+            "spring.sql.init.mode=never",
+            "spring.datasource.url=jdbc:h2:mem:room-image-pipeline;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.datasource.username=sa",
+            "spring.datasource.password="
+    })
+    @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    class UpdateRoom {
+
+        @Autowired
+        private RoomsRepository rooms;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @AfterEach
+        void tearDown() {
+            rooms.deleteAllInBatch();
+        }
+
+        @Test
+        @DisplayName("updateRoom - variants recorded while an edit is in flight are not overwritten")
+        void updateRoomDuringCreateVariants() throws Exception {
+            String imageUrl = storePng(400, 300);
+            Long roomId = rooms.save(Room.builder().roomNumber(301).roomType(RoomType.DOUBLE).capacity(2)
+                    .pricePerNight(new BigDecimal("100.00")).imageUrl(imageUrl).build()).getId();
+
+            CountDownLatch editRead = new CountDownLatch(1);
+            CountDownLatch variantsRendered = new CountDownLatch(1);
+            AtomicInteger stored = new AtomicInteger();
+            ImageStore countingStore = new FileSystemImageStore(root) {
+                @Override
+                public String store(InputStream in, long length, String contentType) throws IOException {
+                    String key = super.store(in, length, contentType);
+                    if (stored.incrementAndGet() == ImageVariant.values().length) {
+                        variantsRendered.countDown();
+                    }
+                    return key;
+                }
+            };
+            RoomImagePipeline pipeline = new RoomImagePipeline(countingStore, rooms, roomCatalogue,
+                    new SyncTaskExecutor());
+            RoomServiceImpl roomService = new RoomServiceImpl(rooms, mock(RoomAvailabilityIndex.class),
+                    roomCatalogue, mock(RateCalendar.class), countingStore, mock(RoomImagePipeline.class),
+                    new TransactionTemplate(transactionManager) {
+                        @Override
+                        public void executeWithoutResult(Consumer<TransactionStatus> action) {
+                            super.executeWithoutResult(status -> {
+                                action.accept(status);
+                                // the room has been read and changed, the commit is still to come
+                                editRead.countDown();
+                                await(variantsRendered);
+                                sleep();
+                            });
+                        }
+                    });
+
+            CompletableFuture<Void> edit = CompletableFuture.runAsync(() -> roomService.updateRoom(
+                    RoomTO.builder().id(roomId).description("Renovated").build(), null));
+            assertTrue(editRead.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Void> variants = CompletableFuture.runAsync(() ->
+                    pipeline.createVariants(roomId, imageUrl));
+            edit.get(20, TimeUnit.SECONDS);
+            variants.get(20, TimeUnit.SECONDS);
+
+            Room room = rooms.findById(roomId).orElseThrow();
+            assertEquals("Renovated", room.getDescription());
+            assertNotNull(room.getThumbnailUrl());
+            assertNotNull(room.getMediumUrl());
+            assertNotNull(room.getFullUrl());
+        }
+
+        private static void await(CountDownLatch latch) {
+            try {
+                assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Gives the pipeline time to reach its UPDATE, which the edit's row lock holds back. */
+        private static void sleep() {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private String storePng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, 0xFF000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8 | (x ^ y) & 0xFF);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return ImageKeys.URL_PREFIX
+                + imageStore.store(new ByteArrayInputStream(bytes.toByteArray()), bytes.size(), "image/png");
+    }
+
+    private BufferedImage read(String url) throws IOException {
+        StoredImage stored = imageStore.find(url.substring(ImageKeys.URL_PREFIX.length())).orElseThrow();
+        return ImageIO.read(stored.localPath().orElseThrow().toFile());
+    }
+
+    private int width(String url) throws IOException {
+        return read(url).getWidth();
+    }
+
+    private int height(String url) throws IOException {
+        return read(url).getHeight();
+    }
+
+    private long size(String url) throws IOException {
+        return Files.size(imageStore.find(url.substring(ImageKeys.URL_PREFIX.length())).orElseThrow()
+                .localPath().orElseThrow());
+    }
+}
@@ -0,0 +1,73 @@
+package za.co.simplitate.hotelbooking.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.simplitate.hotelbooking.dtos.RoomTO;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomSearchIndexTest {
+
+    private final RoomSearchIndex index = RoomSearchIndex.of(List.of(
+            room(1L, RoomType.SINGLE, 1, "Cosy single room with garden view"),
+            room(2L, RoomType.DOUBLE, 2, "Sea view double room, balcony"),
+            room(3L, RoomType.SUITE, 4, "Ocean suite: sea view, sea breeze, private balcony"),
+            room(4L, RoomType.DOUBLE, 2, "Double room near the seaside promenade"),
+            room(5L, RoomType.TRIPLE, 3, "Café-style triple room")));
+
+    @Test
+    @DisplayName("search - every term must match, case insensitive")
+    void testSearch_allTerms() {
+        assertEquals(List.of(3L, 2L), ids(index.search("SEA Balcony", null, null, 10)));
+        assertTrue(index.search("sea garden", null, null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("search - partial words match as prefixes, exact words rank higher")
+    void testSearch_prefixRanked() {
+        List<Long> ids = ids(index.search("sea", null, null, 10));
+
+        assertEquals(3, ids.size());
+        assertEquals(3L, ids.getFirst());
+        assertEquals(4L, ids.getLast());
+        assertEquals(List.of(4L), ids(index.search("seasi", null, null, 10)));
+        assertEquals(List.of(3L, 2L), ids(index.search("sea", null, null, 2)));
+    }
+
+    @Test
+    @DisplayName("search - a prefix expanding to several terms lists each room once")
+    void testSearch_prefixMerged() {
+        List<Long> ids = ids(index.search("s", null, null, 10));
+
+        assertEquals(5, ids.size());
+        assertEquals(5, ids.stream().distinct().count());
+        assertEquals(Set.of(2L, 3L), Set.copyOf(ids(index.search("s balcony", null, null, 10))));
+    }
+
+    @Test
+    @DisplayName("search - type and capacity filters")
+    void testSearch_filters() {
+        assertEquals(List.of(2L, 4L), ids(index.search("room", RoomType.DOUBLE, null, 10))); // shorter description first
+        assertEquals(List.of(3L), ids(index.search("view", null, 3, 10)));
+    }
+
+    @Test
+    @DisplayName("search - accents and room type names are searchable")
+    void testSearch_accentsAndTypes() {
+        assertEquals(List.of(5L), ids(index.search("cafe", null, null, 10)));
+        assertEquals(List.of(3L), ids(index.search("suite", null, null, 10)));
+        assertTrue(index.search("  ", null, null, 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<RoomTO> rooms) {
+        return rooms.stream().map(RoomTO::id).toList();
+    }
+
+    private static RoomTO room(Long id, RoomType roomType, int capacity, String description) {
+        return RoomTO.builder().id(id).roomType(roomType).capacity(capacity).description(description).build();
+    }
+}
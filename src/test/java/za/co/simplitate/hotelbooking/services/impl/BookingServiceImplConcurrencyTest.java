@@ -0,0 +1,172 @@
+package za.co.simplitate.hotelbooking.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.co.simplitate.hotelbooking.dtos.BookingTO;
+import za.co.simplitate.hotelbooking.dtos.RoomSummaryTO;
+import za.co.simplitate.hotelbooking.entities.Room;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+import za.co.simplitate.hotelbooking.exceptions.InvalidBookingStateException;
+import za.co.simplitate.hotelbooking.notifications.NotificationService;
+import za.co.simplitate.hotelbooking.repositories.BookingRepository;
+import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
+import za.co.simplitate.hotelbooking.repositories.UserRepository;
+import za.co.simplitate.hotelbooking.services.BookingCodeGenerator;
+import za.co.simplitate.hotelbooking.services.RateCalendar;
+import za.co.simplitate.hotelbooking.services.RoomAvailabilityIndex;
+import za.co.simplitate.hotelbooking.services.RoomBookingLocks;
+import za.co.simplitate.hotelbooking.services.UserService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Races a few hundred overlapping bookings for one room against H2, committing each booking in its own
+ * transaction, so the availability check and insert are only safe if the room's row lock really serialises
+ * them. Each case publishes its throughput as a {@code bookings-per-second} report entry.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:booking-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.datasource.hikari.minimum-idle=16"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingServiceImplConcurrencyTest {
+
+    private static final int REQUESTS = 400;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomsRepository roomsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger references = new AtomicInteger();
+    private final UserService userService = mock(UserService.class);
+    private final BookingCodeGenerator bookingCodeGenerator = mock(BookingCodeGenerator.class);
+    private final RateCalendar rateCalendar = mock(RateCalendar.class);
+
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        User guest = userRepository.save(User.builder().email("guest@test").firstName("Grace").password("secret")
+                .phoneNumber("0821234567").role(UserRole.CUSTOMER).build());
+        roomId = roomsRepository.save(Room.builder().roomNumber(201).roomType(RoomType.DOUBLE)
+                .pricePerNight(new BigDecimal("100.00")).capacity(2).build()).getId();
+
+        when(userService.getCurrentLoggedInUser()).thenReturn(guest);
+        when(bookingCodeGenerator.generateBookingReference())
+                .thenAnswer(invocation -> "REF" + references.incrementAndGet());
+        when(rateCalendar.price(any(), any(), any(), any())).thenReturn(new BigDecimal("100.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        roomsRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("createBooking - with only the room's row lock, exactly one overlapping booking wins")
+    void testCreateBooking_rowLockAlone(TestReporter testReporter) throws Exception {
+        // no in-process lock, as if every request arrived on a different node
+        race(bookingService(new RoomBookingLocks() {
+            @Override
+            public <T> T withRoomLock(Long roomId, Supplier<T> action) {
+                return action.get();
+            }
+        }), testReporter);
+    }
+
+    @Test
+    @DisplayName("createBooking - with the in-process room lock in front, exactly one overlapping booking wins")
+    void testCreateBooking_withRoomLocks(TestReporter testReporter) throws Exception {
+        race(bookingService(new RoomBookingLocks()), testReporter);
+    }
+
+    private BookingServiceImpl bookingService(RoomBookingLocks roomBookingLocks) {
+        return new BookingServiceImpl(bookingRepository, roomsRepository, mock(NotificationService.class),
+                userService, bookingCodeGenerator, mock(RoomAvailabilityIndex.class), rateCalendar,
+                roomBookingLocks, new TransactionTemplate(transactionManager));
+    }
+
+    private void race(BookingServiceImpl bookingService, TestReporter testReporter) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        LocalDate base = LocalDate.now().plusDays(10);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            // every request covers the night of base + 3
+            BookingTO bookingTO = BookingTO.builder()
+                    .room(RoomSummaryTO.builder().id(roomId).build())
+                    .checkInDate(base.plusDays(i % 4))
+                    .checkOutDate(base.plusDays(4 + i % 3))
+                    .build();
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.createBooking(bookingTO);
+                    booked.incrementAndGet();
+                } catch (InvalidBookingStateException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        testReporter.publishEntry("bookings-per-second", String.format("%.0f", REQUESTS * 1e9 / elapsedNanos));
+
+        assertEquals(1, booked.get());
+        assertEquals(REQUESTS - 1, rejected.get());
+        assertEquals(1, bookingRepository.count());
+    }
+}
@@ -0,0 +1,185 @@
+package za.co.simplitate.hotelbooking.services.impl;
+
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.co.simplitate.hotelbooking.dtos.BookingTO;
+import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.dtos.RoomSummaryTO;
+import za.co.simplitate.hotelbooking.entities.Room;
+import za.co.simplitate.hotelbooking.entities.User;
+import za.co.simplitate.hotelbooking.enums.RoomType;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+import za.co.simplitate.hotelbooking.notifications.NotificationService;
+import za.co.simplitate.hotelbooking.repositories.BookingRepository;
+import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
+import za.co.simplitate.hotelbooking.repositories.UserRepository;
+import za.co.simplitate.hotelbooking.services.BookingCodeGenerator;
+import za.co.simplitate.hotelbooking.services.RateCalendar;
+import za.co.simplitate.hotelbooking.services.RoomAvailabilityIndex;
+import za.co.simplitate.hotelbooking.services.RoomBookingLocks;
+import za.co.simplitate.hotelbooking.services.UserService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Booking throughput in both threading modes against the same Hikari pool: a pool of {@value #PLATFORM_THREADS}
+ * platform threads, Tomcat's default, and one virtual thread per request, the way
+ * {@code spring.threads.virtual.enabled=true} runs under load. Both are published as {@code bookings-per-second}
+ * report entries. Requests that cannot get a connection within Hikari's connection timeout fail, and a JFR
+ * stream counts virtual threads pinned to their carrier, so pool exhaustion or pinning on the booking path
+ * fails the test, as does virtual threads booking markedly slower than the platform pool.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:booking-load;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=" + BookingServiceImplLoadTest.DB_POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + BookingServiceImplLoadTest.DB_POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingServiceImplLoadTest {
+
+    static final int DB_POOL_SIZE = 10;
+
+    private static final int REQUESTS = 1000;
+    private static final int WARM_UP_REQUESTS = 200;
+    private static final int PLATFORM_THREADS = 200;
+    // both modes are bound by the same connection pool, so virtual threads should keep up with platform ones
+    private static final double MIN_VIRTUAL_TO_PLATFORM_RATIO = 0.8;
+    // the JDK's own default: shorter pins are not worth reporting
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomsRepository roomsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingServiceImpl bookingService;
+    private List<Long> roomIds;
+
+    @BeforeEach
+    void setUp() {
+        User guest = userRepository.save(User.builder().email("guest@test").firstName("Grace").password("secret")
+                .phoneNumber("0821234567").role(UserRole.CUSTOMER).build());
+        roomIds = roomsRepository.saveAll(IntStream.rangeClosed(1, REQUESTS)
+                        .mapToObj(roomNumber -> Room.builder().roomNumber(roomNumber).roomType(RoomType.DOUBLE)
+                                .pricePerNight(new BigDecimal("100.00")).capacity(2).build())
+                        .toList())
+                .stream()
+                .map(Room::getId)
+                .toList();
+
+        UserService userService = mock(UserService.class);
+        BookingCodeGenerator bookingCodeGenerator = mock(BookingCodeGenerator.class);
+        RateCalendar rateCalendar = mock(RateCalendar.class);
+        AtomicInteger references = new AtomicInteger();
+        when(userService.getCurrentLoggedInUser()).thenReturn(guest);
+        when(bookingCodeGenerator.generateBookingReference())
+                .thenAnswer(invocation -> "REF" + references.incrementAndGet());
+        when(rateCalendar.price(any(), any(), any(), any())).thenReturn(new BigDecimal("200.00"));
+
+        bookingService = new BookingServiceImpl(bookingRepository, roomsRepository, mock(NotificationService.class),
+                userService, bookingCodeGenerator, mock(RoomAvailabilityIndex.class), rateCalendar,
+                new RoomBookingLocks(), new TransactionTemplate(transactionManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        roomsRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("createBooking - virtual threads keep up with a platform pool without exhausting it or pinning")
+    void testCreateBooking_threadingModes(TestReporter testReporter) throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        try (ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            // JIT and pool warm-up, so neither mode pays for it
+            book(executor, roomIds.subList(0, WARM_UP_REQUESTS), checkIn.plusDays(40));
+        }
+
+        double platform;
+        try (ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            platform = book(executor, roomIds, checkIn);
+        }
+
+        AtomicInteger pinned = new AtomicInteger();
+        double virtual;
+        try (RecordingStream pinning = new RecordingStream();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(PINNED_THRESHOLD);
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            pinning.startAsync();
+            virtual = book(executor, roomIds, checkIn.plusDays(20));
+            pinning.stop();
+        }
+
+        testReporter.publishEntry("platform-bookings-per-second", String.format("%.0f", platform));
+        testReporter.publishEntry("virtual-bookings-per-second", String.format("%.0f", virtual));
+        assertEquals(WARM_UP_REQUESTS + 2L * REQUESTS, bookingRepository.count());
+        assertEquals(0, pinned.get(), "virtual threads pinned to their carrier");
+        assertTrue(virtual >= platform * MIN_VIRTUAL_TO_PLATFORM_RATIO,
+                String.format("virtual %.0f vs platform %.0f bookings/s", virtual, platform));
+    }
+
+    /** Books every room for two nights from {@code checkIn}, all requests released at once; returns bookings/s. */
+    private double book(ExecutorService executor, List<Long> rooms, LocalDate checkIn) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Response>> futures = new ArrayList<>();
+        for (Long roomId : rooms) {
+            BookingTO bookingTO = BookingTO.builder()
+                    .room(RoomSummaryTO.builder().id(roomId).build())
+                    .checkInDate(checkIn)
+                    .checkOutDate(checkIn.plusDays(2))
+                    .build();
+            futures.add(executor.submit(() -> {
+                start.await();
+                return bookingService.createBooking(bookingTO);
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        // a request that waited longer than Hikari's connection timeout fails here
+        for (Future<Response> future : futures) {
+            assertEquals(200, future.get(60, TimeUnit.SECONDS).status());
+        }
+        return rooms.size() * 1e9 / (System.nanoTime() - startedAt);
+    }
+}
@@ -1,32 +1,47 @@
 package za.co.simplitate.hotelbooking.services.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import za.co.simplitate.hotelbooking.dtos.BookingTO;
 import za.co.simplitate.hotelbooking.dtos.NotificationTO;
 import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.dtos.RoomSummaryTO;
+import za.co.simplitate.hotelbooking.dtos.UserSummaryTO;
 import za.co.simplitate.hotelbooking.entities.Booking;
 import za.co.simplitate.hotelbooking.entities.Room;
 import za.co.simplitate.hotelbooking.entities.User;
 import za.co.simplitate.hotelbooking.enums.BookingStatus;
 import za.co.simplitate.hotelbooking.enums.PaymentStatus;
+import za.co.simplitate.hotelbooking.enums.RoomType;
 import za.co.simplitate.hotelbooking.exceptions.InvalidBookingStateException;
 import za.co.simplitate.hotelbooking.exceptions.NotFoundException;
 import za.co.simplitate.hotelbooking.notifications.NotificationService;
 import za.co.simplitate.hotelbooking.repositories.BookingRepository;
 import za.co.simplitate.hotelbooking.repositories.RoomsRepository;
 import za.co.simplitate.hotelbooking.services.BookingCodeGenerator;
+import za.co.simplitate.hotelbooking.services.RateCalendar;
+import za.co.simplitate.hotelbooking.services.RoomAvailabilityIndex;
+import za.co.simplitate.hotelbooking.services.RoomBookingLocks;
 import za.co.simplitate.hotelbooking.services.UserService;
+import za.co.simplitate.hotelbooking.util.GenericMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -46,6 +61,14 @@ class BookingServiceImplTest {
     private UserService userService;
     @Mock
     private BookingCodeGenerator bookingCodeGenerator;
+    @Mock
+    private RoomAvailabilityIndex roomAvailabilityIndex;
+    @Mock
+    private RateCalendar rateCalendar;
+    @Spy
+    private RoomBookingLocks roomBookingLocks = new RoomBookingLocks();
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -64,6 +87,41 @@ class BookingServiceImplTest {
         assertEquals(1, resp.bookings().size());
     }*/
 
+    @Test
+    @DisplayName("getAllBookings - full page returns the cursor for the next page")
+    void testGetAllBookings_keysetPage() {
+        List<BookingTO> page = List.of(
+                BookingTO.builder().id(9L).build(),
+                BookingTO.builder().id(7L).build());
+        when(bookingRepository.findBookingPage(Long.MAX_VALUE, Limit.of(2))).thenReturn(page);
+        when(bookingRepository.findBookingPage(7L, Limit.of(2))).thenReturn(List.of(BookingTO.builder().id(3L).build()));
+
+        Response first = bookingService.getAllBookings(null, 2);
+        Response last = bookingService.getAllBookings(first.nextAfterId(), 2);
+
+        assertEquals(200, first.status());
+        assertEquals(page, first.bookings());
+        assertEquals(7L, first.nextAfterId());
+        assertEquals(1, last.bookings().size());
+        assertNull(last.nextAfterId());
+    }
+
+    @Test
+    @DisplayName("exportBookings - writes every streamed booking and closes the cursor")
+    void testExportBookings() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<BookingTO> stream = Stream.of(BookingTO.builder().id(1L).build(), BookingTO.builder().id(2L).build())
+                .onClose(() -> closed.set(true));
+        LocalDate from = LocalDate.now();
+        when(bookingRepository.streamBookings(from, null, BookingStatus.BOOKED)).thenReturn(stream);
+        List<BookingTO> exported = new ArrayList<>();
+
+        bookingService.exportBookings(from, null, BookingStatus.BOOKED, exported::add);
+
+        assertEquals(List.of(1L, 2L), exported.stream().map(BookingTO::id).toList());
+        assertTrue(closed.get());
+    }
+
     @Test
     @DisplayName("createBooking - success")
     void testCreateBooking_success() {
@@ -71,9 +129,11 @@ class BookingServiceImplTest {
         when(userService.getCurrentLoggedInUser()).thenReturn(user);
 
         Room room = Room.builder().id(2L).pricePerNight(new BigDecimal("100.00")).build();
-        when(roomsRepository.findById(2L)).thenReturn(Optional.of(room));
+        when(roomsRepository.findRoomForUpdate(2L)).thenReturn(Optional.of(room));
         when(bookingRepository.isRoomAvailable(eq(2L), any(), any())).thenReturn(true);
+        runTransactionsInline();
         when(bookingCodeGenerator.generateBookingReference()).thenReturn("REF123");
+        when(rateCalendar.price(any(), eq(new BigDecimal("100.00")), any(), any())).thenReturn(new BigDecimal("200.00"));
 
         Booking saved = Booking.builder()
                 .id(10L)
@@ -87,7 +147,7 @@ class BookingServiceImplTest {
         when(bookingRepository.save(any(Booking.class))).thenReturn(saved);
 
         BookingTO bookingTO = mock(BookingTO.class);
-        when(bookingTO.room()).thenReturn(room);
+        when(bookingTO.room()).thenReturn(GenericMapper.mapToRoomSummaryTO(room));
         when(bookingTO.checkInDate()).thenReturn(LocalDate.now().plusDays(1));
         when(bookingTO.checkOutDate()).thenReturn(LocalDate.now().plusDays(3));
 
@@ -100,6 +160,10 @@ class BookingServiceImplTest {
         NotificationTO sent = notifCaptor.getValue();
         assertEquals(user.getEmail(), sent.recipient());
         assertEquals("REF123", sent.bookingReference());
+        verify(roomAvailabilityIndex).onBookingCreated(eq(2L), any(), any());
+        ArgumentCaptor<Booking> bookingCaptor = ArgumentCaptor.forClass(Booking.class);
+        verify(bookingRepository).save(bookingCaptor.capture());
+        assertEquals(new BigDecimal("200.00"), bookingCaptor.getValue().getTotalPrice());
     }
 
     /*@Test
@@ -110,7 +174,7 @@ class BookingServiceImplTest {
 
         BookingTO bookingTO = mock(BookingTO.class);
         Room r = Room.builder().id(2L).build();
-        when(bookingTO.room()).thenReturn(r);
+        when(bookingTO.room()).thenReturn(GenericMapper.mapToRoomSummaryTO(r));
         when(bookingTO.checkInDate()).thenReturn(LocalDate.now().plusDays(1));
         when(bookingTO.checkOutDate()).thenReturn(LocalDate.now().plusDays(2));
 
@@ -122,11 +186,12 @@ class BookingServiceImplTest {
     void testCreateBooking_roomNotAvailable() {
         when(userService.getCurrentLoggedInUser()).thenReturn(User.builder().id(1L).build());
         Room room = Room.builder().id(2L).pricePerNight(new BigDecimal("50")).build();
-        when(roomsRepository.findById(2L)).thenReturn(Optional.of(room));
+        when(roomsRepository.findRoomForUpdate(2L)).thenReturn(Optional.of(room));
         when(bookingRepository.isRoomAvailable(eq(2L), any(), any())).thenReturn(false);
+        runTransactionsInline();
 
         BookingTO bookingTO = mock(BookingTO.class);
-        when(bookingTO.room()).thenReturn(room);
+        when(bookingTO.room()).thenReturn(GenericMapper.mapToRoomSummaryTO(room));
         when(bookingTO.checkInDate()).thenReturn(LocalDate.now().plusDays(1));
         when(bookingTO.checkOutDate()).thenReturn(LocalDate.now().plusDays(2));
 
@@ -146,6 +211,26 @@ class BookingServiceImplTest {
         assertNotNull(resp.booking());
     }
 
+    @Test
+    @DisplayName("findBookingByReference - booking carries user and room summaries, not entities")
+    void testFindBookingByReference_summaries() throws Exception {
+        User user = User.builder().id(1L).email("u@test").firstName("Grace").lastName("Hopper")
+                .password("$2a$10$hash").phoneNumber("0821234567").build();
+        Room room = Room.builder().id(2L).roomNumber(101).roomType(RoomType.SUITE)
+                .description("sea view").imageUrl("/api/images/x.jpg").build();
+        Booking booking = Booking.builder().id(5L).bookingReference("iH3GtMQhND").user(user).room(room).build();
+        when(bookingRepository.findBookingByBookingReference("iH3GtMQhND")).thenReturn(Optional.of(booking));
+
+        Response resp = bookingService.findBookingByReference("iH3GtMQhND");
+        String json = new ObjectMapper().findAndRegisterModules().writeValueAsString(resp.booking());
+
+        assertEquals(new UserSummaryTO(1L, "Grace", "Hopper"), resp.booking().user());
+        assertEquals(new RoomSummaryTO(2L, 101, RoomType.SUITE), resp.booking().room());
+        assertFalse(json.contains("password"));
+        assertFalse(json.contains("$2a$"));
+        assertFalse(json.contains("description"));
+    }
+
     @Test
     @DisplayName("findBookingByReference - not found")
     void testFindBookingByReference_notFound() {
@@ -156,8 +241,9 @@ class BookingServiceImplTest {
     @Test
     @DisplayName("updateBooking - success updates statuses")
     void testUpdateBooking_success() {
-        Booking existing = Booking.builder().id(7L).bookingStatus(BookingStatus.BOOKED).paymentStatus(PaymentStatus.PENDING).build();
-        when(bookingRepository.findById(7L)).thenReturn(Optional.of(existing));
+        Room room = Room.builder().id(2L).build();
+        Booking existing = Booking.builder().id(7L).room(room).bookingStatus(BookingStatus.BOOKED).paymentStatus(PaymentStatus.PENDING).build();
+        when(bookingRepository.findWithRoomById(7L)).thenReturn(Optional.of(existing));
         when(bookingRepository.save(any(Booking.class))).thenAnswer(i -> i.getArgument(0));
 
         BookingTO bookingTO = mock(BookingTO.class);
@@ -172,6 +258,7 @@ class BookingServiceImplTest {
         assertEquals(BookingStatus.CANCELLED, existing.getBookingStatus());
         assertEquals(PaymentStatus.FAILED, existing.getPaymentStatus());
         verify(bookingRepository).save(existing);
+        verify(roomAvailabilityIndex).onBookingChanged(2L);
     }
 
     @Test
@@ -185,9 +272,14 @@ class BookingServiceImplTest {
     @Test
     @DisplayName("updateBooking - id not found throws")
     void testUpdateBooking_idNotFound() {
-        when(bookingRepository.findById(99L)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithRoomById(99L)).thenReturn(Optional.empty());
         BookingTO bookingTO = mock(BookingTO.class);
         when(bookingTO.id()).thenReturn(99L);
         assertThrows(NotFoundException.class, () -> bookingService.updateBooking(bookingTO));
     }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
 }
@@ -0,0 +1,203 @@
+package za.co.simplitate.hotelbooking.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import za.co.simplitate.hotelbooking.dtos.Response;
+import za.co.simplitate.hotelbooking.entities.IdempotencyRecord;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+import za.co.simplitate.hotelbooking.exceptions.IdempotencyConflictException;
+import za.co.simplitate.hotelbooking.exceptions.NotFoundException;
+import za.co.simplitate.hotelbooking.repositories.IdempotencyRecordRepository;
+import za.co.simplitate.hotelbooking.security.CurrentUser;
+import za.co.simplitate.hotelbooking.security.JwtPrincipal;
+
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static za.co.simplitate.hotelbooking.TestConstants.EMAIL;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    private static final Map<String, Object> REQUEST = Map.of("bookingReference", "REF1");
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Mock
+    private CurrentUser currentUser;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final List<String> actionKeys = new ArrayList<>();
+    private final Function<String, Response> action = key -> {
+        actionKeys.add(key);
+        return Response.builder()
+                .status(200)
+                .transactionId("secret_" + executions.incrementAndGet())
+                .build();
+    };
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = newService();
+    }
+
+    @Test
+    @DisplayName("execute - without a key the action runs every time")
+    void executeWithoutKey() {
+        idempotencyService.execute("payments", null, REQUEST, action);
+        idempotencyService.execute("payments", null, REQUEST, action);
+
+        assertEquals(2, executions.get());
+        assertEquals(2, actionKeys.stream().filter(Objects::isNull).count());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    @DisplayName("execute - a retry is answered from memory, a different request with the key is a conflict")
+    void executeRetry() {
+        authenticated();
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+
+        Response first = idempotencyService.execute("payments", "key-1", REQUEST, action);
+        Response retry = idempotencyService.execute("payments", "key-1", REQUEST, action);
+
+        assertEquals(first, retry);
+        assertEquals(1, executions.get());
+        assertEquals(64, actionKeys.getFirst().length());
+        verify(idempotencyRecordRepository).complete(anyString(), anyString());
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute("payments", "key-1",
+                Map.of("bookingReference", "REF2"), action));
+    }
+
+    @Test
+    @DisplayName("execute - concurrent duplicates wait for the running request instead of running again")
+    void executeCoalesces() throws Exception {
+        authenticated();
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Response> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("bookings", "key-1", REQUEST, key -> {
+                    running.countDown();
+                    await(release);
+                    return action.apply(key);
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Response> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("bookings", "key-1", REQUEST, action));
+        release.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute - a failed request releases its key so the retry runs again")
+    void executeFailure() {
+        authenticated();
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+
+        assertThrows(NotFoundException.class, () -> idempotencyService.execute("payments", "key-1", REQUEST,
+                key -> {
+                    throw new NotFoundException("Booking not found!!");
+                }));
+        idempotencyService.execute("payments", "key-1", REQUEST, action);
+
+        verify(idempotencyRecordRepository).deleteById(anyString());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute - a response stored by another node is replayed, a running one is a conflict")
+    void executeStored() throws Exception {
+        authenticated();
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1, 0);
+        Response stored = idempotencyService.execute("payments", "key-1", REQUEST, action);
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyRecordRepository).complete(anyString(), json.capture());
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .requestHash(requestHash())
+                .response(json.getValue())
+                .createdAt(Instant.now())
+                .build();
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.of(record));
+        IdempotencyServiceImpl otherNode = newService();
+
+        assertFalse(json.getValue().contains("secret_1"), "client secret stored in plain text");
+        assertEquals(stored, otherNode.execute("payments", "key-1", REQUEST, action));
+        record.setResponse(null);
+        IdempotencyConflictException conflict = assertThrows(IdempotencyConflictException.class,
+                () -> otherNode.execute("payments", "key-2", REQUEST, action));
+        assertEquals(IdempotencyServiceImpl.IN_PROGRESS, conflict.getMessage());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute - a request that ran but failed to store its response is never run again")
+    void executeCompleteFails() throws Exception {
+        authenticated();
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1, 0);
+        when(idempotencyRecordRepository.complete(anyString(), anyString()))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        assertEquals(200, idempotencyService.execute("payments", "key-1", REQUEST, action).status());
+        verify(idempotencyRecordRepository, never()).deleteById(anyString());
+
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .requestHash(requestHash())
+                .createdAt(Instant.now().minusSeconds(600))
+                .build();
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.of(record));
+        IdempotencyConflictException conflict = assertThrows(IdempotencyConflictException.class,
+                () -> newService().execute("payments", "key-1", REQUEST, action));
+        assertEquals(IdempotencyServiceImpl.OUTCOME_UNKNOWN, conflict.getMessage());
+        assertEquals(1, executions.get());
+    }
+
+    private IdempotencyServiceImpl newService() {
+        return new IdempotencyServiceImpl(idempotencyRecordRepository, currentUser, objectMapper, 24, 600, 120,
+                "test-secret");
+    }
+
+    private void authenticated() {
+        when(currentUser.principal()).thenReturn(new JwtPrincipal(1L, EMAIL, UserRole.CUSTOMER));
+    }
+
+    private String requestHash() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(REQUEST)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
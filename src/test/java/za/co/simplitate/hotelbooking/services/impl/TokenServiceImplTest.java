@@ -0,0 +1,102 @@
+package za.co.simplitate.hotelbooking.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import za.co.simplitate.hotelbooking.entities.RefreshToken;
+import za.co.simplitate.hotelbooking.enums.UserRole;
+import za.co.simplitate.hotelbooking.exceptions.InvalidCredentialsException;
+import za.co.simplitate.hotelbooking.repositories.RefreshTokenRepository;
+import za.co.simplitate.hotelbooking.security.JWTUtils;
+import za.co.simplitate.hotelbooking.security.TokenClaims;
+import za.co.simplitate.hotelbooking.security.TokenRevocations;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static za.co.simplitate.hotelbooking.MockData.mockUser;
+import static za.co.simplitate.hotelbooking.TestConstants.EMAIL;
+import static za.co.simplitate.hotelbooking.TestConstants.TOKEN;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private JWTUtils jwtUtils;
+    @Mock
+    private TokenRevocations tokenRevocations;
+
+    private TokenServiceImpl tokenService;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenServiceImpl(refreshTokenRepository, jwtUtils, tokenRevocations, 30);
+    }
+
+    @Test
+    @DisplayName("refresh - uses the token up and returns a successor in the same family")
+    void refresh() {
+        String issued = tokenService.createRefreshToken(mockUser());
+        RefreshToken stored = savedToken();
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(stored.getId()), any())).thenReturn(1);
+        when(jwtUtils.generateToken(any())).thenReturn(TOKEN);
+
+        var result = tokenService.refresh(issued);
+
+        assertEquals(200, result.status());
+        assertEquals(TOKEN, result.token());
+        assertNotEquals(issued, result.refreshToken());
+        ArgumentCaptor<RefreshToken> successor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(successor.capture());
+        assertEquals(stored.getFamilyId(), successor.getValue().getFamilyId());
+        assertNotEquals(stored.getTokenHash(), successor.getValue().getTokenHash());
+    }
+
+    @Test
+    @DisplayName("refresh - a used token presented again ends its whole family")
+    void refreshReused() {
+        String issued = tokenService.createRefreshToken(mockUser());
+        RefreshToken stored = savedToken();
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(stored.getId()), any())).thenReturn(0);
+
+        assertThrows(InvalidCredentialsException.class, () -> tokenService.refresh(issued));
+
+        verify(refreshTokenRepository).deleteFamily(stored.getFamilyId());
+        verify(jwtUtils, never()).generateToken(any());
+    }
+
+    @Test
+    @DisplayName("logout - revokes the access token and deletes the refresh family")
+    void logout() {
+        String issued = tokenService.createRefreshToken(mockUser());
+        RefreshToken stored = savedToken();
+        TokenClaims claims = new TokenClaims("jti", EMAIL, 1L, UserRole.CUSTOMER, Instant.now(),
+                Instant.now().plusSeconds(600));
+        when(jwtUtils.parseToken(TOKEN)).thenReturn(claims);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        tokenService.logout(TOKEN, issued);
+
+        verify(tokenRevocations).revoke(claims);
+        verify(refreshTokenRepository).deleteFamily(stored.getFamilyId());
+    }
+
+    private RefreshToken savedToken() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken token = saved.getValue();
+        token.setId(5L);
+        return token;
+    }
+}
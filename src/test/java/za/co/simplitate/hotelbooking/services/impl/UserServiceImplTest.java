@@ -14,7 +14,10 @@ import za.co.simplitate.hotelbooking.exceptions.InvalidCredentialsException;
 import za.co.simplitate.hotelbooking.exceptions.NotFoundException;
 import za.co.simplitate.hotelbooking.repositories.BookingRepository;
 import za.co.simplitate.hotelbooking.repositories.UserRepository;
+import za.co.simplitate.hotelbooking.security.CurrentUser;
 import za.co.simplitate.hotelbooking.security.JWTUtils;
+import za.co.simplitate.hotelbooking.security.PrincipalCache;
+import za.co.simplitate.hotelbooking.services.TokenService;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,6 +41,12 @@ class UserServiceImplTest {
     private JWTUtils jwtUtils;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private PrincipalCache principalCache;
+    @Mock
+    private TokenService tokenService;
+    @Mock
+    private CurrentUser currentUser;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -72,13 +81,13 @@ class UserServiceImplTest {
     }
 
     @Test
-    @DisplayName("loginUser - user not found by email")
+    @DisplayName("loginUser - unknown email is answered exactly like a wrong password")
     void testLoginUser_notFoundByEmail() {
         when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
 
-        NotFoundException thrown = assertThrows(NotFoundException.class,
+        InvalidCredentialsException thrown = assertThrows(InvalidCredentialsException.class,
                 () -> userService.loginUser(mockLoginRequest()));
-        assertTrue(thrown.getMessage().startsWith("User not found"));
+        assertEquals("Password does not match!!", thrown.getMessage());
     }
 
     @Test
@@ -92,6 +101,49 @@ class UserServiceImplTest {
         assertEquals("Password does not match!!", thrown.getMessage());
     }
 
+    @Test
+    @DisplayName("loginUser - outdated hash is re-hashed after a successful login")
+    void testLoginUser_upgradesHash() {
+        User user = mockUser();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(user.getPassword())).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn("{bcrypt}rehashed");
+        when(jwtUtils.generateToken(any())).thenReturn(TOKEN);
+
+        userService.loginUser(mockLoginRequest());
+
+        verify(userRepository).save(user);
+        assertEquals("{bcrypt}rehashed", user.getPassword());
+    }
+
+    @Test
+    @DisplayName("loginUser - unknown email still pays for a password check")
+    void testLoginUser_unknownEmailHashes() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("{bcrypt}dummy");
+
+        assertThrows(InvalidCredentialsException.class, () -> userService.loginUser(mockLoginRequest()));
+        assertThrows(InvalidCredentialsException.class, () -> userService.loginUser(mockLoginRequest()));
+
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(passwordEncoder, times(2)).matches(anyString(), eq("{bcrypt}dummy"));
+    }
+
+    @Test
+    @DisplayName("getBookingHistory - queries by the token's user id without loading the user")
+    void testGetBookingHistory_byReference() {
+        User reference = User.builder().id(1L).build();
+        when(currentUser.reference()).thenReturn(reference);
+        when(bookingRepository.findBookingsByUser(reference)).thenReturn(List.of());
+
+        var result = userService.getBookingHistory();
+
+        assertEquals(200, result.status());
+        verify(currentUser, never()).get();
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("getAllUsers - greenline")
     void testGetAllUsers() {
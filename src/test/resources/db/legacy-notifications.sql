@@ -0,0 +1,14 @@
+-- notifications as they were before the outbox columns, with a row already in them
+create table notifications (
+    id bigint generated by default as identity primary key,
+    subject varchar(255),
+    body varchar(255),
+    recipient varchar(255),
+    notification_type varchar(255),
+    booking_reference varchar(255),
+    created_at timestamp(6)
+);
+
+insert into notifications (subject, body, recipient, notification_type, booking_reference, created_at)
+values ('BOOKING CONFIRMATION', 'Your booking has been successfully created.', 'guest@test', 'EMAIL', 'ABC123',
+        current_timestamp);